@@ -0,0 +1,70 @@
+package org.coderscrib.blogapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.coderscrib.blogapp.dto.post.PostResponseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process caches backed by Caffeine (W-TinyLFU eviction).
+ * Evictions and puts are deferred until the surrounding transaction commits, so a reader
+ * can never re-populate an entry with data from a transaction that is still in flight.
+ * Hit/miss/eviction statistics are recorded and published by actuator as cache.* metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String POSTS = "posts";
+    public static final String RELATED_POSTS = "relatedPosts";
+
+    // rough per-entry overhead of the dto, its strings and the cache node
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    @Value("${app.cache.posts.max-weight-bytes:67108864}")
+    private long postsMaxWeightBytes;
+
+    @Value("${app.cache.posts.ttl:10m}")
+    private Duration postsTtl;
+
+    @Value("${app.cache.related.max-size:100000}")
+    private long relatedMaxSize;
+
+    // related lists are not evicted when other posts change, so they only live this long
+    @Value("${app.cache.related.ttl:30m}")
+    private Duration relatedTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(POSTS, Caffeine.newBuilder()
+                .maximumWeight(postsMaxWeightBytes)
+                .weigher((Object key, Object value) -> estimateSize(value))
+                .expireAfterWrite(postsTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(RELATED_POSTS, Caffeine.newBuilder()
+                .maximumSize(relatedMaxSize)
+                .expireAfterWrite(relatedTtl)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static int estimateSize(Object value) {
+        if (!(value instanceof PostResponseDto post)) {
+            return ENTRY_OVERHEAD_BYTES;
+        }
+        return ENTRY_OVERHEAD_BYTES + 2 * (length(post.getTitle()) + length(post.getContent()) + length(post.getDisplayName()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -3,6 +3,7 @@ package org.coderscrib.blogapp.config;
 import org.coderscrib.blogapp.repository.UserRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
@@ -54,6 +55,8 @@ public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/users/register/**", "/api/users/login/**").permitAll()
                 .requestMatchers("/error/**", "/favicon.ico", "/static/**", "/css/**", "/js/**", "/images/**").permitAll()
+                .requestMatchers("/s/**").permitAll() // public short-link redirects
+                .requestMatchers(HttpMethod.GET, "/feeds/**", "/sitemap.xml", "/sitemaps/**").permitAll() // crawlers and feed readers
                 .requestMatchers("/test-exceptions/**").permitAll() // Allow test endpoints for exception testing
                 .anyRequest().authenticated()
         )
@@ -0,0 +1,49 @@
+package org.coderscrib.blogapp.controller;
+
+import jakarta.validation.Valid;
+import org.coderscrib.blogapp.dto.draft.DraftCreateDto;
+import org.coderscrib.blogapp.dto.draft.DraftPatchDto;
+import org.coderscrib.blogapp.dto.draft.DraftResponseDto;
+import org.coderscrib.blogapp.dto.draft.DraftRevisionDto;
+import org.coderscrib.blogapp.dto.post.PostResponseDto;
+import org.coderscrib.blogapp.service.DraftService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/drafts")
+public class DraftController {
+    private final DraftService draftService;
+
+    public DraftController(DraftService draftService) {
+        this.draftService = draftService;
+    }
+
+    // start a draft, pass postId to edit an existing post
+    @PostMapping
+    public ResponseEntity<DraftResponseDto> createDraft(@Valid @RequestBody DraftCreateDto dto){
+        DraftResponseDto draft = draftService.createDraft(dto);
+        return ResponseEntity.created(URI.create("/api/drafts/" + draft.getId())).body(draft);
+    }
+    @GetMapping("/{id}")
+    public ResponseEntity<DraftResponseDto> getDraft(@PathVariable Long id){
+        return ResponseEntity.ok(draftService.getDraft(id));
+    }
+    // autosave: text edits against the revision the editor last saw
+    @PatchMapping("/{id}")
+    public ResponseEntity<DraftRevisionDto> patchDraft(@PathVariable Long id, @Valid @RequestBody DraftPatchDto dto){
+        return ResponseEntity.ok(draftService.patchDraft(id, dto));
+    }
+    // turn the draft into a post, or into an update of the post it was started from
+    @PostMapping("/{id}/publish")
+    public ResponseEntity<PostResponseDto> publishDraft(@PathVariable Long id){
+        return ResponseEntity.ok(draftService.publishDraft(id));
+    }
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteDraft(@PathVariable Long id){
+        draftService.deleteDraft(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,86 @@
+package org.coderscrib.blogapp.controller;
+
+import org.coderscrib.blogapp.service.FeedService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@RestController
+public class FeedController {
+    private static final MediaType RSS = new MediaType("application", "rss+xml", StandardCharsets.UTF_8);
+    private static final MediaType ATOM = new MediaType("application", "atom+xml", StandardCharsets.UTF_8);
+    private static final MediaType XML = new MediaType(MediaType.APPLICATION_XML, StandardCharsets.UTF_8);
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final FeedService feedService;
+
+    public FeedController(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    // newest posts of the whole blog
+    @GetMapping("/feeds/rss")
+    public ResponseEntity<byte[]> getRssFeed(WebRequest request){
+        return serve(feedService.getFeed(FeedService.Format.RSS), RSS, request);
+    }
+
+    @GetMapping("/feeds/atom")
+    public ResponseEntity<byte[]> getAtomFeed(WebRequest request){
+        return serve(feedService.getFeed(FeedService.Format.ATOM), ATOM, request);
+    }
+
+    // newest posts of one author
+    @GetMapping("/feeds/users/{id}/rss")
+    public ResponseEntity<byte[]> getAuthorRssFeed(@PathVariable Long id, WebRequest request){
+        return serve(feedService.getAuthorFeed(id, FeedService.Format.RSS), RSS, request);
+    }
+
+    @GetMapping("/feeds/users/{id}/atom")
+    public ResponseEntity<byte[]> getAuthorAtomFeed(@PathVariable Long id, WebRequest request){
+        return serve(feedService.getAuthorFeed(id, FeedService.Format.ATOM), ATOM, request);
+    }
+
+    // sitemap index pointing at one sitemap per range of post ids
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<byte[]> getSitemapIndex(WebRequest request){
+        return serve(feedService.getSitemapIndex(), XML, request);
+    }
+
+    @GetMapping("/sitemaps/posts-{page}.xml")
+    public ResponseEntity<byte[]> getSitemap(@PathVariable long page, WebRequest request){
+        return serve(feedService.getSitemap(page), XML, request);
+    }
+
+    // pre-gzipped bytes when the client takes them, 304 while ETag or Last-Modified still match
+    private ResponseEntity<byte[]> serve(FeedService.Document document, MediaType type, WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? document.gzippedEtag() : document.etag();
+        if (request.checkNotModified(etag, document.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(document.lastModified())
+                .cacheControl(CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(type);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? document.gzipped() : document.body());
+    }
+}
@@ -32,6 +32,12 @@ public class LikeController {
         return ResponseEntity.ok(likeService.findAllLikedUsers(postId));
     }
 
+    // which of the given posts the user liked, e.g. ?postIds=1,2,3 for a feed page
+    @GetMapping("/user/{userId}/liked")
+    public ResponseEntity<List<Long>> likedPosts(@PathVariable Long userId, @RequestParam List<Long> postIds){
+        return ResponseEntity.ok(likeService.likedPostIds(userId, postIds));
+    }
+
     @GetMapping("/post/{postId}/count")
     public ResponseEntity<Integer> countLikes(@PathVariable Long postId){
         return ResponseEntity.ok(likeService.likeCount(postId));
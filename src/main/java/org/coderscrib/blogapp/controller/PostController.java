@@ -1,40 +1,149 @@
 package org.coderscrib.blogapp.controller;
 
 import jakarta.validation.Valid;
+import org.coderscrib.blogapp.dto.post.PostBatchDto;
+import org.coderscrib.blogapp.dto.post.PostBatchRequestDto;
 import org.coderscrib.blogapp.dto.post.PostCreateDto;
+import org.coderscrib.blogapp.dto.post.PostFeedPageDto;
+import org.coderscrib.blogapp.dto.post.PostImportRequestDto;
+import org.coderscrib.blogapp.dto.post.PostImportResultDto;
 import org.coderscrib.blogapp.dto.post.PostResponseDto;
+import org.coderscrib.blogapp.dto.post.PostRevisionDto;
+import org.coderscrib.blogapp.dto.post.PostRevisionListDto;
 import org.coderscrib.blogapp.dto.post.PostSummaryDto;
+import org.coderscrib.blogapp.service.PostExportService;
+import org.coderscrib.blogapp.service.PostImportService;
+import org.coderscrib.blogapp.service.PostRevisionService;
 import org.coderscrib.blogapp.service.PostService;
+import org.coderscrib.blogapp.service.PostViewCounter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/posts")
 public class PostController {
     private final PostService postService;
+    private final PostExportService postExportService;
+    private final PostImportService postImportService;
+    private final PostViewCounter postViewCounter;
+    private final PostRevisionService postRevisionService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostExportService postExportService,
+                          PostImportService postImportService, PostViewCounter postViewCounter,
+                          PostRevisionService postRevisionService) {
         this.postService = postService;
+        this.postExportService = postExportService;
+        this.postImportService = postImportService;
+        this.postViewCounter = postViewCounter;
+        this.postRevisionService = postRevisionService;
     }
     // controller methods
 
     // get all the posts like home feed
+    // tag filters: tags = all of, anyTag = at least one of, notTag = none of; filtered pages are newest id first
     @GetMapping
-    public ResponseEntity<Page<PostSummaryDto>> getAllPosts(@PageableDefault(size = 10,sort = "createdAt",direction=Sort.Direction.DESC) Pageable pageable){
-        Page<PostSummaryDto> posts = postService.getAllPosts(pageable);
+    public ResponseEntity<Page<PostSummaryDto>> getAllPosts(@PageableDefault(size = 10,sort = "createdAt",direction=Sort.Direction.DESC) Pageable pageable,
+                                                            @RequestParam(required = false) List<String> tags,
+                                                            @RequestParam(required = false) List<String> anyTag,
+                                                            @RequestParam(required = false) List<String> notTag){
+        boolean filtered = tags != null || anyTag != null || notTag != null;
+        Page<PostSummaryDto> posts = filtered
+                ? postService.getPostsByTags(tags, anyTag, notTag, pageable)
+                : postService.getAllPosts(pageable);
         return ResponseEntity.ok(posts);
     }
-    // getting specific post by id
+    // cursor based home feed, pass nextCursor of the previous page to continue
+    @GetMapping("/feed")
+    public ResponseEntity<PostFeedPageDto> getFeed(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "10") int size){
+        PostFeedPageDto feed = postService.getFeed(cursor, size);
+        return ResponseEntity.ok(feed);
+    }
+    // full-text search over titles and contents
+    @GetMapping("/search")
+    public ResponseEntity<List<PostSummaryDto>> searchPosts(@RequestParam String q,
+                                                            @RequestParam(defaultValue = "20") int limit){
+        List<PostSummaryDto> posts = postService.searchPosts(q, limit);
+        return ResponseEntity.ok(posts);
+    }
+    // posts with similar content
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<PostSummaryDto>> getRelatedPosts(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "5") int limit){
+        List<PostSummaryDto> posts = postService.getRelatedPosts(id, limit);
+        return ResponseEntity.ok(posts);
+    }
+    // trending posts by decayed like and comment activity
+    @GetMapping("/trending")
+    public ResponseEntity<List<PostSummaryDto>> getTrendingPosts(@RequestParam(defaultValue = "10") int limit){
+        List<PostSummaryDto> posts = postService.getTrendingPosts(limit);
+        return ResponseEntity.ok(posts);
+    }
+    // dump all posts as NDJSON, optionally gzipped
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPosts(@RequestParam(defaultValue = "false") boolean gzip){
+        StreamingResponseBody body = out -> postExportService.exportPosts(out, gzip);
+        String filename = gzip ? "posts.ndjson.gz" : "posts.ndjson";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    // several posts in one round trip, e.g. /api/posts/batch?ids=3,1,7
+    @GetMapping("/batch")
+    public ResponseEntity<PostBatchDto> getPostsByIds(@RequestParam List<Long> ids){
+        return ResponseEntity.ok(withPendingViews(postService.getPostsByIds(ids)));
+    }
+    // same as above for id lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<PostBatchDto> getPostsByIds(@Valid @RequestBody PostBatchRequestDto dto){
+        return ResponseEntity.ok(withPendingViews(postService.getPostsByIds(dto.getIds())));
+    }
+    // getting specific post by id, 304 when the client's ETag still matches
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponseDto> getPostById(@PathVariable Long id){
-        PostResponseDto post = postService.getPostById(id);
-        return ResponseEntity.ok(post);
+    public ResponseEntity<PostResponseDto> getPostById(@PathVariable Long id, WebRequest request){
+        String etag = postService.getPostETag(id);
+        postViewCounter.recordView(id);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        PostResponseDto post = postViewCounter.withPendingViews(postService.getPostById(id));
+        return ResponseEntity.ok().eTag(etag).body(post);
+    }
+    // sanitized HTML rendering of the post body, rendered once when the post is written
+    @GetMapping(value = "/{id}/html", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getPostHtml(@PathVariable Long id, WebRequest request){
+        String etag = postService.getPostETag(id);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        String html = postService.getPostHtml(id);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(html);
+    }
+    // edit history, newest first, with stored vs full-copy size
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<PostRevisionListDto> getRevisions(@PathVariable Long id){
+        return ResponseEntity.ok(postRevisionService.getRevisions(id));
+    }
+    @GetMapping("/{id}/revisions/{number}")
+    public ResponseEntity<PostRevisionDto> getRevision(@PathVariable Long id, @PathVariable int number){
+        return ResponseEntity.ok(postRevisionService.getRevision(id, number));
     }
     // Create a Post
     @PostMapping
@@ -43,6 +152,12 @@ public class PostController {
         return ResponseEntity.created((URI.create("/posts/"+post.getId())))
                 .body(post);
     }
+    // bulk import of posts with their comments
+    @PostMapping("/import")
+    public ResponseEntity<PostImportResultDto> importPosts(@Valid @RequestBody PostImportRequestDto dto){
+        PostImportResultDto result = postImportService.importPosts(dto.getPosts());
+        return ResponseEntity.ok(result);
+    }
     // update Post
     @PutMapping("/{id}")
     public ResponseEntity<PostResponseDto> updatePost(@PathVariable Long id, @Valid @RequestBody PostCreateDto dto){
@@ -63,4 +178,8 @@ public class PostController {
         return ResponseEntity.ok(url);
     }
 
+    private PostBatchDto withPendingViews(PostBatchDto batch) {
+        batch.setPosts(batch.getPosts().stream().map(postViewCounter::withPendingViews).toList());
+        return batch;
+    }
 }
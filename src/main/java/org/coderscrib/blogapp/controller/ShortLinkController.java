@@ -0,0 +1,28 @@
+package org.coderscrib.blogapp.controller;
+
+import org.coderscrib.blogapp.service.ShortLinkService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/s")
+public class ShortLinkController {
+    private final ShortLinkService shortLinkService;
+
+    public ShortLinkController(ShortLinkService shortLinkService) {
+        this.shortLinkService = shortLinkService;
+    }
+
+    // redirect a short link to its post
+    @GetMapping("/{code}")
+    public ResponseEntity<Void> redirect(@PathVariable String code){
+        String target = shortLinkService.resolve(code);
+        return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(target)).build();
+    }
+}
@@ -1,8 +1,10 @@
 package org.coderscrib.blogapp.controller;
 
 import jakarta.validation.Valid;
+import org.coderscrib.blogapp.dto.post.PostFeedPageDto;
 import org.coderscrib.blogapp.dto.post.PostSummaryDto;
 import org.coderscrib.blogapp.dto.user.*;
+import org.coderscrib.blogapp.service.FollowService;
 import org.coderscrib.blogapp.service.PostService;
 import org.coderscrib.blogapp.service.UserService;
 import org.springframework.data.domain.Page;
@@ -12,22 +14,29 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
     private final PostService postService;
+    private final FollowService followService;
 
-    public UserController(UserService userService, PostService postService) {
+    public UserController(UserService userService, PostService postService, FollowService followService) {
         this.userService = userService;
         this.postService = postService;
+        this.followService = followService;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDto> getUser(@PathVariable Long id){
+    public ResponseEntity<UserResponseDto> getUser(@PathVariable Long id, WebRequest request){
+        String etag = userService.getUserETag(id);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         UserResponseDto user = userService.getUserById(id);
-        return new ResponseEntity<>(user,HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).body(user);
     }
     @GetMapping("/{id}/posts")
     public ResponseEntity<Page<PostSummaryDto>> getUserPosts(@PathVariable Long id,
@@ -35,6 +44,31 @@ public class UserController {
         Page<PostSummaryDto> posts = postService.getUserPosts(id,pageable);
         return ResponseEntity.ok(posts);
     }
+    @GetMapping("/{id}/posts/feed")
+    public ResponseEntity<PostFeedPageDto> getUserFeed(@PathVariable Long id,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "10") int size){
+        PostFeedPageDto feed = postService.getUserFeed(id, cursor, size);
+        return ResponseEntity.ok(feed);
+    }
+    // home timeline: posts of followed users, pass nextCursor of the previous page to continue
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<PostFeedPageDto> getTimeline(@PathVariable Long id,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "10") int size){
+        PostFeedPageDto timeline = postService.getTimeline(id, cursor, size);
+        return ResponseEntity.ok(timeline);
+    }
+    @PostMapping("/{id}/following/{targetId}")
+    public ResponseEntity<Void> follow(@PathVariable Long id, @PathVariable Long targetId){
+        followService.follow(id, targetId);
+        return ResponseEntity.ok().build();
+    }
+    @DeleteMapping("/{id}/following/{targetId}")
+    public ResponseEntity<Void> unfollow(@PathVariable Long id, @PathVariable Long targetId){
+        followService.unfollow(id, targetId);
+        return ResponseEntity.ok().build();
+    }
     @GetMapping("/username/{username}")
     public ResponseEntity<UserResponseDto> getUserByUsername(@PathVariable String username){
         UserResponseDto user = userService.getUserByUsername(username);
@@ -0,0 +1,21 @@
+package org.coderscrib.blogapp.dto.comment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentImportDto {
+    @NotBlank
+    @Size(max = 1000)
+    private String content;
+    @NotNull
+    private Long userId;
+}
@@ -0,0 +1,23 @@
+package org.coderscrib.blogapp.dto.draft;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftCreateDto {
+    @Size(max = 255)
+    private String title;
+    @Size(max = 10000)
+    private String content;
+    @NotNull
+    private Long authorId;
+    // set to start from an existing post, publishing then updates that post
+    private Long postId;
+}
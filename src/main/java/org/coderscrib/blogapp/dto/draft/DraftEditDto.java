@@ -0,0 +1,23 @@
+package org.coderscrib.blogapp.dto.draft;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Replace deleteCount characters at position with text. Positions count UTF-16 code units,
+ * like JavaScript string indices, and refer to the content after the previous edit of the patch.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftEditDto {
+    @Min(0)
+    private int position;
+    @Min(0)
+    private int deleteCount;
+    private String text;
+}
@@ -0,0 +1,26 @@
+package org.coderscrib.blogapp.dto.draft;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftPatchDto {
+    @NotNull
+    private Long baseRevision;
+    // replaces the title when present
+    @Size(max = 255)
+    private String title;
+    @Valid
+    @Size(max = 1000)
+    private List<@NotNull DraftEditDto> edits;
+}
@@ -0,0 +1,22 @@
+package org.coderscrib.blogapp.dto.draft;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftResponseDto {
+    private Long id;
+    private Long authorId;
+    private Long postId;
+    private String title;
+    private String content;
+    private long revision;
+    private LocalDateTime updatedAt;
+}
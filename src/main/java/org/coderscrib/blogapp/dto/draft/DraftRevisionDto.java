@@ -0,0 +1,17 @@
+package org.coderscrib.blogapp.dto.draft;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// what a patch returns, the client already holds the text
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftRevisionDto {
+    private Long id;
+    private long revision;
+    private int contentLength;
+}
@@ -0,0 +1,19 @@
+package org.coderscrib.blogapp.dto.post;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostBatchRequestDto {
+    @NotEmpty
+    private List<@NotNull Long> ids;
+}
@@ -1,13 +1,18 @@
 package org.coderscrib.blogapp.dto.post;
 
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.util.Set;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,4 +26,14 @@ public class PostCreateDto {
     private String content;
     @NotNull
     private Long authorId;
+    // set to schedule the post, it stays hidden from listings until then
+    @Future
+    private LocalDateTime publishAt;
+    // replaces the post's tags when present, stored lowercase
+    @Size(max = 10)
+    private Set<@Pattern(regexp = "\\s*[\\p{L}\\p{N}][\\p{L}\\p{N}_-]{0,49}\\s*") String> tags;
+
+    public PostCreateDto(String title, String content, Long authorId, LocalDateTime publishAt) {
+        this(title, content, authorId, publishAt, null);
+    }
 }
@@ -0,0 +1,25 @@
+package org.coderscrib.blogapp.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostExportDto {
+    private Long id;
+    private String title;
+    private String content;
+    private Long authorId;
+    private String authorUsername;
+    private String authorDisplayName;
+    private int likeCount;
+    private int commentCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
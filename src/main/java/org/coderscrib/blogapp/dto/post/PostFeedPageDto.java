@@ -0,0 +1,18 @@
+package org.coderscrib.blogapp.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostFeedPageDto {
+    private List<PostSummaryDto> posts;
+    private String nextCursor;
+    private boolean hasNext;
+}
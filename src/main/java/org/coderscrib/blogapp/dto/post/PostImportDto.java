@@ -0,0 +1,31 @@
+package org.coderscrib.blogapp.dto.post;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.coderscrib.blogapp.dto.comment.CommentImportDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportDto {
+    @NotBlank
+    @Size(max = 255)
+    private String title;
+    @NotBlank
+    @Size(max = 10000)
+    private String content;
+    @NotNull
+    private Long authorId;
+    @Valid
+    private List<CommentImportDto> comments = new ArrayList<>();
+}
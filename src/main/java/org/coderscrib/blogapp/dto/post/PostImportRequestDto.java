@@ -0,0 +1,20 @@
+package org.coderscrib.blogapp.dto.post;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportRequestDto {
+    @NotEmpty
+    @Valid
+    private List<PostImportDto> posts;
+}
@@ -0,0 +1,15 @@
+package org.coderscrib.blogapp.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportResultDto {
+    private int postsImported;
+    private int commentsImported;
+}
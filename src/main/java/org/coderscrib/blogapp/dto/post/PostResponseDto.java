@@ -1,16 +1,19 @@
 package org.coderscrib.blogapp.dto.post;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Builder(toBuilder = true)
 public class PostResponseDto {
     private Long id;
     private String title;
@@ -21,4 +24,8 @@ public class PostResponseDto {
     private LocalDateTime updatedAt;
     private int commentCount;
     private int likeCount;
+    private long viewCount;
+    private boolean published;
+    private LocalDateTime publishAt;
+    private List<String> tags;
 }
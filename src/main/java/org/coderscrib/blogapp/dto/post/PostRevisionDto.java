@@ -0,0 +1,20 @@
+package org.coderscrib.blogapp.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostRevisionDto {
+    private Long postId;
+    private int revisionNumber;
+    private String title;
+    private String content;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package org.coderscrib.blogapp.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostRevisionListDto {
+    // newest first
+    private List<PostRevisionSummaryDto> revisions;
+    // characters stored for all revisions, and what full copies of each would take
+    private long storedChars;
+    private long fullCopyChars;
+}
@@ -0,0 +1,21 @@
+package org.coderscrib.blogapp.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostRevisionSummaryDto {
+    private int revisionNumber;
+    private String title;
+    private boolean snapshot;
+    private int contentLength;
+    private int storedLength;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,109 @@
+package org.coderscrib.blogapp.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores text as UTF-8, deflated when that actually saves space.
+ * Layout: 1 codec byte, 4 byte uncompressed length, payload.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte RAW = 0;
+    static final byte DEFLATE = 1;
+
+    // below this the deflate header costs more than it saves
+    private static final int MIN_COMPRESS_BYTES = 128;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= MIN_COMPRESS_BYTES) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                return frame(DEFLATE, raw.length, deflated);
+            }
+        }
+        return frame(RAW, raw.length, raw);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(column);
+        byte codec = buffer.get();
+        int length = buffer.getInt();
+        byte[] raw = switch (codec) {
+            case RAW -> {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                yield bytes;
+            }
+            case DEFLATE -> inflate(column, buffer.position(), length);
+            default -> throw new IllegalStateException("Unknown content codec " + codec);
+        };
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] frame(byte codec, int length, byte[] payload) {
+        return ByteBuffer.allocate(5 + payload.length)
+                .put(codec)
+                .putInt(length)
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] column, int offset, int length) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(column, offset, column.length - offset);
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = inflater.inflate(raw, read, length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalStateException("Truncated post content");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt post content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
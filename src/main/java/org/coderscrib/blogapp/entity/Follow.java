@@ -0,0 +1,41 @@
+package org.coderscrib.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter(AccessLevel.PRIVATE)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(name = "follows",
+        uniqueConstraints = @UniqueConstraint(name = "uk_follows_follower_followee", columnNames = {"follower_id", "followee_id"}),
+        indexes = @Index(name = "idx_follows_followee", columnList = "followee_id"))
+public class Follow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "follows_seq")
+    @SequenceGenerator(name = "follows_seq", sequenceName = "follows_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User follower;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "followee_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User followee;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
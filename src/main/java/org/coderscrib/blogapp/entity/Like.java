@@ -14,10 +14,13 @@ import java.time.LocalDateTime;
 @Setter(AccessLevel.PRIVATE)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
-@Table(name = "likes")
+@Table(name = "likes", uniqueConstraints =
+        @UniqueConstraint(name = "uk_likes_user_post", columnNames = {"user_id", "post_id"}))
 public class Like {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "likes_seq")
+    // not pooled: the idempotent native inserts take their ids from likes_seq directly
+    @SequenceGenerator(name = "likes_seq", sequenceName = "likes_seq", allocationSize = 1)
     private Long id;
 
     @ManyToOne(optional = false)
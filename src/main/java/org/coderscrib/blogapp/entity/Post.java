@@ -2,15 +2,19 @@ package org.coderscrib.blogapp.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Entity
 @Builder
@@ -19,25 +23,51 @@ import java.util.List;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_post_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_post_user_created_at_id", columnList = "user_id, created_at, id")
+})
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     @Column(nullable = false)
     private String title;
 
-    @NotBlank
-    @Lob
-    @Size(max = 10000)
-    @Column(nullable = false)
-    private String content;
+    // body lives in post_content so feed scans never touch it
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id", nullable = false, unique = true)
+    private PostContent body;
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User author;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // false while a scheduled post waits for publishAt, hidden from every listing until then
+    @ColumnDefault("true")
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean published = true;
+
+    private LocalDateTime publishAt;
+
+    // lowercase, filtering goes through the in-memory TagIndex rather than this table
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "post_tag", joinColumns = @JoinColumn(name = "post_id"),
+            indexes = @Index(name = "idx_post_tag_tag", columnList = "tag"))
+    @Column(name = "tag", nullable = false, length = 50)
+    @BatchSize(size = 50)
+    @Builder.Default
+    private Set<String> tags = new HashSet<>();
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -45,9 +75,38 @@ public class Post {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // denormalized counters, kept in step by LikeService/CommentService; only their bulk
+    // UPDATEs write them, an entity flush would put back the count it was loaded with
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int likeCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int commentCount;
+
+    // written in batches by PostViewCounter, never by an entity flush
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long viewCount;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Like> likes = new ArrayList<>();
+
+    public String getContent() {
+        return body == null ? null : body.getText();
+    }
+
+    // body edits live in another table, so touch updatedAt to bump the version too
+    public void setContent(String content, String html, byte[] signature) {
+        if (body == null) {
+            body = PostContent.of(content, html, signature);
+        } else if (!Objects.equals(content, body.getText())) {
+            body.setText(content, html, signature);
+            updatedAt = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package org.coderscrib.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.coderscrib.blogapp.util.MinHash;
+
+// post body, kept out of the hot post table and compressed at rest
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "post_content")
+public class PostContent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_content_seq")
+    @SequenceGenerator(name = "post_content_seq", sequenceName = "post_content_seq", allocationSize = 50)
+    private Long id;
+
+    @Convert(converter = CompressedTextConverter.class)
+    // 10k chars of UTF-8 plus the codec header still fits
+    @Column(nullable = false, length = 40_960)
+    private String text;
+
+    // sanitized rendering of text, rendered by the service on every write so it always matches the post version
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(length = 204_800)
+    private String html;
+
+    // MinHash of text for related posts, null for texts without terms
+    @Column(name = "minhash", length = MinHash.SIGNATURE_BYTES)
+    private byte[] signature;
+
+    // html and signature are derived from text by the caller (MarkdownRenderer, MinHash)
+    public static PostContent of(String text, String html, byte[] signature) {
+        PostContent content = new PostContent();
+        content.setText(text, html, signature);
+        return content;
+    }
+
+    public void setText(String text, String html, byte[] signature) {
+        this.text = text;
+        this.html = html;
+        this.signature = signature;
+    }
+}
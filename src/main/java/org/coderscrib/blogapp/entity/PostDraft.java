@@ -0,0 +1,53 @@
+package org.coderscrib.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// unpublished work on a new post, or on an edit of an existing one when post is set
+@Entity
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter(AccessLevel.PUBLIC)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(name = "post_draft", indexes = @Index(name = "idx_post_draft_author", columnList = "author_id"))
+public class PostDraft {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_draft_seq")
+    @SequenceGenerator(name = "post_draft_seq", sequenceName = "post_draft_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User author;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, length = 40_960)
+    private String content;
+
+    // bumped by every accepted patch, clients send it back as baseRevision
+    @Column(nullable = false)
+    private long revision;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
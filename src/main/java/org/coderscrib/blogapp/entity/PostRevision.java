@@ -0,0 +1,59 @@
+package org.coderscrib.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored state of a post. Snapshot rows hold the full content; the others hold a
+ * {@link org.coderscrib.blogapp.util.TextDelta} against the previous revision.
+ */
+@Entity
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter(AccessLevel.PRIVATE)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(name = "post_revision",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_revision_post_number", columnNames = {"post_id", "revision_number"}))
+public class PostRevision {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_revision_seq")
+    @SequenceGenerator(name = "post_revision_seq", sequenceName = "post_revision_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    @Column(nullable = false)
+    private int revisionNumber;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, length = 40_960)
+    private String payload;
+
+    // characters of the rebuilt content and of the stored payload, for storage accounting
+    @Column(nullable = false)
+    private int contentLength;
+
+    @Column(nullable = false)
+    private int payloadLength;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
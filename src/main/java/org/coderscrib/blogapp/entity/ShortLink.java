@@ -0,0 +1,42 @@
+package org.coderscrib.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// the public code is derived from the id (see ShortCode), so no code column is stored
+@Entity
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter(AccessLevel.PRIVATE)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(name = "short_link",
+        uniqueConstraints = @UniqueConstraint(name = "uk_short_link_post", columnNames = "post_id"))
+public class ShortLink {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "short_link_seq")
+    @SequenceGenerator(name = "short_link_seq", sequenceName = "short_link_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Post post;
+
+    // written in batches by ShortLinkService
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long clickCount;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -2,6 +2,7 @@ package org.coderscrib.blogapp.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -63,6 +64,22 @@ public class GlobalExceptionHandler {
         return createErrorResponse(ex, HttpStatus.CONFLICT, request);
     }
 
+    /**
+     * Handles a failed {@code @Version} check, i.e. two concurrent updates of the same row,
+     * and returns a 409 Conflict response so the client can reload and retry.
+     *
+     * @param ex the exception
+     * @param request the web request
+     * @return a ResponseEntity with status 409 and error details
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        logger.debug("[DEBUG_LOG] Handling OptimisticLockingFailureException: {}", ex.getMessage());
+        return createErrorResponse(new ConflictException("The resource was modified concurrently, reload and retry", ex),
+                HttpStatus.CONFLICT, request);
+    }
+
     /**
      * Handles all other BlogAppExceptions and returns a 500 Internal Server Error response.
      *
@@ -0,0 +1,29 @@
+package org.coderscrib.blogapp.repository;
+
+import org.coderscrib.blogapp.entity.Follow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+    boolean existsByFollower_IdAndFollowee_Id(Long followerId, Long followeeId);
+    long countByFollowee_Id(Long followeeId);
+
+    @Modifying
+    @Query("delete from Follow f where f.follower.id = :followerId and f.followee.id = :followeeId")
+    int deleteByFollowerAndFollowee(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    @Query("select f.follower.id from Follow f where f.followee.id = :followeeId")
+    List<Long> findFollowerIds(@Param("followeeId") Long followeeId);
+
+    @Query("select f.followee.id from Follow f where f.follower.id = :followerId")
+    List<Long> findFolloweeIds(@Param("followerId") Long followerId);
+
+    @Query("select f.followee.id from Follow f group by f.followee.id having count(f) >= :minFollowers")
+    List<Long> findFolloweeIdsWithAtLeast(@Param("minFollowers") long minFollowers);
+}
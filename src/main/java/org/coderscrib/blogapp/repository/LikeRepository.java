@@ -1,19 +1,37 @@
 package org.coderscrib.blogapp.repository;
 
 import org.coderscrib.blogapp.entity.Like;
-import org.coderscrib.blogapp.entity.Post;
-import org.coderscrib.blogapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
-    boolean existsByUserAndPost(User user, Post post);
-    Optional<Like> findByUserAndPost(User user, Post post);
+    // likes_seq is not pooled, so nextval here and in LikeWriteBuffer never collides with an id Hibernate handed out
+    @Modifying
+    @Query(value = "INSERT INTO likes (id, post_id, user_id, created_at) " +
+            "VALUES (nextval('likes_seq'), :postId, :userId, LOCALTIMESTAMP) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from Like l where l.user.id = :userId and l.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
 
     List<Like> findByPostId(Long postId);
     int countByPostId(Long postId);
+
+    @Query("select l.user.id from Like l where l.post.id = :postId")
+    List<Long> findUserIdsByPostId(@Param("postId") Long postId);
+
+    @Query("select l.post.id from Like l where l.user.id = :userId and l.post.id in :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // (userId, postId) of every like among the given users and posts; may include pairs not asked for
+    @Query("select l.user.id, l.post.id from Like l where l.user.id in :userIds and l.post.id in :postIds")
+    List<Object[]> findPairs(@Param("userIds") Collection<Long> userIds, @Param("postIds") Collection<Long> postIds);
 }
@@ -0,0 +1,10 @@
+package org.coderscrib.blogapp.repository;
+
+/**
+ * Projection of a post body without a signature, read while backfilling signatures.
+ */
+public interface PostBodyTextView {
+    Long getPostId();
+    Long getContentId();
+    String getText();
+}
@@ -0,0 +1,9 @@
+package org.coderscrib.blogapp.repository;
+
+import org.coderscrib.blogapp.entity.PostDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostDraftRepository extends JpaRepository<PostDraft, Long> {
+}
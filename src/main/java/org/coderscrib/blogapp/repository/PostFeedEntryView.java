@@ -0,0 +1,15 @@
+package org.coderscrib.blogapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of what an RSS/Atom entry shows of a post.
+ */
+public interface PostFeedEntryView {
+    Long getId();
+    String getTitle();
+    String getAuthorName();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    String getContent();
+}
@@ -1,13 +1,188 @@
 package org.coderscrib.blogapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.coderscrib.blogapp.dto.post.PostExportDto;
+import org.coderscrib.blogapp.dto.post.PostSummaryDto;
 import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.PostContent;
+import org.coderscrib.blogapp.util.FeedWriter;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    Page<Post> findByAuthor_Id(Long userId, Pageable pageable);
+    // summary projections: only id, title and createdAt are read, never the content
+    @Query(value = "select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) from Post p where p.published = true",
+            countQuery = "select count(p) from Post p where p.published = true")
+    Page<PostSummaryDto> findAllSummaries(Pageable pageable);
+
+    @Query(value = "select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) " +
+            "from Post p where p.author.id = :userId and p.published = true",
+            countQuery = "select count(p) from Post p where p.author.id = :userId and p.published = true")
+    Page<PostSummaryDto> findSummariesByAuthorId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) " +
+            "from Post p where p.author.id = :userId and p.published = true order by p.createdAt desc, p.id desc")
+    List<PostSummaryDto> findSummariesByAuthorId(@Param("userId") Long userId);
+
+    @Query("select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) " +
+            "from Post p where p.id in :ids and p.published = true")
+    List<PostSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // keyset feed: the Pageable only carries the limit, so no count query is issued
+    @Query("select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) " +
+            "from Post p where p.published = true order by p.createdAt desc, p.id desc")
+    List<PostSummaryDto> findFeed(Pageable pageable);
+
+    @Query("select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) " +
+            "from Post p where p.published = true and (p.createdAt, p.id) < (:createdAt, :id) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostSummaryDto> findFeedBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) " +
+            "from Post p where p.author.id = :userId and p.published = true order by p.createdAt desc, p.id desc")
+    List<PostSummaryDto> findUserFeed(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select new org.coderscrib.blogapp.dto.post.PostSummaryDto(p.id, p.title, p.createdAt) " +
+            "from Post p where p.author.id = :userId and p.published = true and (p.createdAt, p.id) < (:createdAt, :id) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostSummaryDto> findUserFeedBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id, Pageable pageable);
+
+    @Query("select p.id from Post p where p.author.id in :authorIds and p.id < :beforeId and p.published = true " +
+            "order by p.id desc")
+    List<Long> findIdsByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds, @Param("beforeId") Long beforeId,
+                                      Pageable pageable);
+
+    @Query("select p.id as id, p.title as title, a.displayName as authorName, p.createdAt as createdAt, " +
+            "p.updatedAt as updatedAt, b.text as content from Post p join p.author a join p.body b " +
+            "where p.published = true order by p.createdAt desc, p.id desc")
+    List<PostFeedEntryView> findFeedEntries(Pageable pageable);
+
+    @Query("select p.id as id, p.title as title, a.displayName as authorName, p.createdAt as createdAt, " +
+            "p.updatedAt as updatedAt, b.text as content from Post p join p.author a join p.body b " +
+            "where a.id = :authorId and p.published = true order by p.createdAt desc, p.id desc")
+    List<PostFeedEntryView> findFeedEntriesByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    // one row per sitemap file, posts are split into files by id
+    @Query("select (p.id - 1) / " + FeedWriter.SITEMAP_MAX_URLS + " as id, " +
+            "max(coalesce(p.updatedAt, p.createdAt)) as lastModified from Post p where p.published = true " +
+            "group by (p.id - 1) / " + FeedWriter.SITEMAP_MAX_URLS)
+    List<PostSitemapView> findSitemapPages();
+
+    @Query("select p.id as id, coalesce(p.updatedAt, p.createdAt) as lastModified from Post p " +
+            "where p.published = true and p.id between :fromId and :toId order by p.id")
+    List<PostSitemapView> findSitemapEntries(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select p.version as version, p.likeCount as likeCount, p.commentCount as commentCount from Post p " +
+            "where p.id = :id and p.published = true")
+    Optional<PostVersionView> findVersionById(@Param("id") Long id);
+
+    // scheduled posts still waiting, reloaded into the publish timing wheel on startup
+    @Query("select p.id as id, p.publishAt as publishAt from Post p where p.published = false")
+    List<ScheduledPostView> findScheduled();
+
+    // createdAt moves to the publish time so the post enters feeds as new; version bump refreshes ETags
+    @Transactional
+    @Modifying
+    @Query("update Post p set p.published = true, p.createdAt = coalesce(p.publishAt, p.createdAt), " +
+            "p.version = p.version + 1 where p.id in :ids and p.published = false")
+    int markPublished(@Param("ids") Collection<Long> ids);
+
+    // for edits, scheduled posts included
+    @Query("select p from Post p join fetch p.author join fetch p.body left join fetch p.tags where p.id = :id")
+    Optional<Post> findWithContentById(@Param("id") Long id);
+
+    // single round trip for the detail view, body included
+    @Query("select p from Post p join fetch p.author join fetch p.body left join fetch p.tags " +
+            "where p.id = :id and p.published = true")
+    Optional<Post> findPublishedWithContentById(@Param("id") Long id);
+
+    @Query("select p from Post p join fetch p.author join fetch p.body left join fetch p.tags " +
+            "where p.id in :ids and p.published = true")
+    List<Post> findAllWithContentByIdIn(@Param("ids") Collection<Long> ids);
+
+    boolean existsByIdAndPublishedTrue(Long id);
+
+    @Query("select b from Post p join p.body b where p.id = :id and p.published = true")
+    Optional<PostContent> findBodyByPostId(@Param("id") Long id);
+
+    // forward-only scan for bulk indexing, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as id, p.title as title, b.text as content from Post p join p.body b where p.published = true")
+    Stream<PostTextView> streamAllText();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id from Post p where p.published = true")
+    Stream<Long> streamPublishedIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as postId, t as tag from Post p join p.tags t where p.published = true")
+    Stream<PostTagView> streamPublishedTags();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as id, b.signature as signature from Post p join p.body b " +
+            "where p.published = true and b.signature is not null")
+    Stream<PostSignatureView> streamPublishedSignatures();
+
+    // bodies written before signatures existed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as postId, b.id as contentId, b.text as text from Post p join p.body b " +
+            "where p.published = true and b.signature is null")
+    Stream<PostBodyTextView> streamPublishedWithoutSignature();
+
+    @Query("select p.id as id, b.signature as signature from Post p join p.body b " +
+            "where p.id in :ids and p.published = true and b.signature is not null")
+    List<PostSignatureView> findSignaturesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new org.coderscrib.blogapp.dto.post.PostExportDto(p.id, p.title, b.text, a.id, a.username, " +
+            "a.displayName, p.likeCount, p.commentCount, p.createdAt, p.updatedAt) " +
+            "from Post p join p.author a join p.body b where p.published = true order by p.id")
+    Stream<PostExportDto> streamAllForExport();
+
+    // atomic counter updates, never read-modify-write in Java
+    @Transactional
+    @Modifying
+    @Query("update Post p set p.likeCount = case when p.likeCount + :delta < 0 then 0 else p.likeCount + :delta end " +
+            "where p.id = :postId")
+    int adjustLikeCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query("update Post p set p.commentCount = case when p.commentCount + :delta < 0 then 0 else p.commentCount + :delta end " +
+            "where p.id = :postId")
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Query("select coalesce(max(p.id), 0) from Post p")
+    long findMaxId();
+
+    // recount the counters of one id range, only rows that drifted are written
+    @Transactional
+    @Modifying
+    @Query("update Post p set p.likeCount = (select count(l) from Like l where l.post = p) " +
+            "where p.id between :fromId and :toId " +
+            "and p.likeCount <> (select count(l) from Like l where l.post = p)")
+    int reconcileLikeCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
 
+    @Transactional
+    @Modifying
+    @Query("update Post p set p.commentCount = (select count(c) from Comment c where c.post = p) " +
+            "where p.id between :fromId and :toId " +
+            "and p.commentCount <> (select count(c) from Comment c where c.post = p)")
+    int reconcileCommentCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
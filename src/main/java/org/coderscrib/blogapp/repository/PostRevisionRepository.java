@@ -0,0 +1,28 @@
+package org.coderscrib.blogapp.repository;
+
+import org.coderscrib.blogapp.dto.post.PostRevisionSummaryDto;
+import org.coderscrib.blogapp.entity.PostRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PostRevisionRepository extends JpaRepository<PostRevision, Long> {
+    @Query("select coalesce(max(r.revisionNumber), 0) from PostRevision r where r.post.id = :postId")
+    int findLatestNumber(@Param("postId") Long postId);
+
+    @Query("select new org.coderscrib.blogapp.dto.post.PostRevisionSummaryDto(r.revisionNumber, r.title, r.snapshot, " +
+            "r.contentLength, r.payloadLength, r.createdAt) " +
+            "from PostRevision r where r.post.id = :postId order by r.revisionNumber desc")
+    List<PostRevisionSummaryDto> findSummariesByPostId(@Param("postId") Long postId);
+
+    // the nearest snapshot at or before the revision, followed by the deltas up to it
+    @Query("select r from PostRevision r where r.post.id = :postId and r.revisionNumber <= :number " +
+            "and r.revisionNumber >= (select max(s.revisionNumber) from PostRevision s " +
+            "where s.post.id = :postId and s.snapshot = true and s.revisionNumber <= :number) " +
+            "order by r.revisionNumber")
+    List<PostRevision> findChainTo(@Param("postId") Long postId, @Param("number") int number);
+}
@@ -0,0 +1,9 @@
+package org.coderscrib.blogapp.repository;
+
+/**
+ * Projection of the MinHash signature of a post.
+ */
+public interface PostSignatureView {
+    Long getId();
+    byte[] getSignature();
+}
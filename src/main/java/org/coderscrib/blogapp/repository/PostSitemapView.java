@@ -0,0 +1,11 @@
+package org.coderscrib.blogapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a sitemap entry: a post, or a whole sitemap file when id is its page number.
+ */
+public interface PostSitemapView {
+    Long getId();
+    LocalDateTime getLastModified();
+}
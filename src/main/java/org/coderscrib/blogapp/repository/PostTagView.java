@@ -0,0 +1,9 @@
+package org.coderscrib.blogapp.repository;
+
+/**
+ * Projection of one (post, tag) pair, read while rebuilding the tag index.
+ */
+public interface PostTagView {
+    Long getPostId();
+    String getTag();
+}
@@ -0,0 +1,10 @@
+package org.coderscrib.blogapp.repository;
+
+/**
+ * Projection of the searchable text of a post, read without hydrating the entity.
+ */
+public interface PostTextView {
+    Long getId();
+    String getTitle();
+    String getContent();
+}
@@ -0,0 +1,10 @@
+package org.coderscrib.blogapp.repository;
+
+/**
+ * Everything that changes the rendered post, read for ETag checks.
+ */
+public interface PostVersionView {
+    long getVersion();
+    int getLikeCount();
+    int getCommentCount();
+}
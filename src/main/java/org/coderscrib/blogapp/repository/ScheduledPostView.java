@@ -0,0 +1,11 @@
+package org.coderscrib.blogapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A post waiting for its publish time.
+ */
+public interface ScheduledPostView {
+    Long getId();
+    LocalDateTime getPublishAt();
+}
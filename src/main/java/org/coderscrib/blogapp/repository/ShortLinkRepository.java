@@ -0,0 +1,18 @@
+package org.coderscrib.blogapp.repository;
+
+import org.coderscrib.blogapp.entity.ShortLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ShortLinkRepository extends JpaRepository<ShortLink, Long> {
+    @Query("select s.id from ShortLink s where s.post.id = :postId")
+    Optional<Long> findIdByPostId(@Param("postId") Long postId);
+
+    @Query("select s.post.id from ShortLink s where s.id = :id")
+    Optional<Long> findPostIdById(@Param("id") Long id);
+}
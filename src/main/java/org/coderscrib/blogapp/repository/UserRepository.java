@@ -2,6 +2,8 @@ package org.coderscrib.blogapp.repository;
 
 import org.coderscrib.blogapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +15,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String usernameOrEmail);
     Optional<User> findByUsername(String usernameOrEmail);
+
+    @Query("select u.version as version, count(p.id) as postCount, coalesce(sum(p.version), 0) as postVersionSum, " +
+            "coalesce(max(p.id), 0) as maxPostId from User u left join Post p on p.author = u " +
+            "where u.id = :id group by u.version")
+    Optional<UserVersionView> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,12 @@
+package org.coderscrib.blogapp.repository;
+
+/**
+ * Everything that changes the rendered user profile, read for ETag checks.
+ * The post aggregates catch title edits, new posts and deletions.
+ */
+public interface UserVersionView {
+    long getVersion();
+    long getPostCount();
+    long getPostVersionSum();
+    long getMaxPostId();
+}
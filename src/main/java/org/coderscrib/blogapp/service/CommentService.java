@@ -1,5 +1,6 @@
 package org.coderscrib.blogapp.service;
 
+import org.coderscrib.blogapp.config.CacheConfig;
 import org.coderscrib.blogapp.dto.comment.CommentCreateDto;
 import org.coderscrib.blogapp.dto.comment.CommentResponseDto;
 import org.coderscrib.blogapp.dto.comment.CommentSummaryDto;
@@ -13,6 +14,9 @@ import org.coderscrib.blogapp.repository.PostRepository;
 import org.coderscrib.blogapp.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,17 +31,23 @@ public class CommentService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final CacheManager cacheManager;
+    private final TrendingService trendingService;
     private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
 
     public CommentService(CommentRepository commentRepository, PostRepository postRepository, 
-                         UserRepository userRepository, NotificationService notificationService) {
+                         UserRepository userRepository, NotificationService notificationService,
+                         CacheManager cacheManager, TrendingService trendingService) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.cacheManager = cacheManager;
+        this.trendingService = trendingService;
     }
 
     // post a comment.
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public CommentResponseDto createComment(CommentCreateDto dto, Long userId, Long postId) {
         logger.info("Attempting to create comment for post ID: {} by user ID: {}", postId, userId);
         
@@ -76,6 +86,8 @@ public class CommentService {
                 .build();
                 
         Comment savedComment = commentRepository.save(comment);
+        postRepository.adjustCommentCount(postId, 1);
+        trendingService.recordComment(postId);
         logger.info("Comment created successfully: ID {}, by user: {}, on post: {}", 
                 savedComment.getId(), user.getUsername(), post.getTitle());
 
@@ -115,6 +127,7 @@ public class CommentService {
         return toCommentResponseDto(updatedComment);
     }
     // see a comment
+    @Transactional(readOnly = true)
     public CommentResponseDto getCommentById(Long commentId){
         logger.info("Retrieving comment by ID: {}", commentId);
         
@@ -134,6 +147,7 @@ public class CommentService {
         return toCommentResponseDto(comment);
     }
     // see all comments on the post
+    @Transactional(readOnly = true)
     public List<CommentSummaryDto> getAllComments(Long postId){
         logger.info("Retrieving all comments for post ID: {}", postId);
         
@@ -180,11 +194,20 @@ public class CommentService {
         
         logger.debug("Deleting comment ID: {} by user: {} on post ID: {}", commentId, username, postId);
         commentRepository.delete(comment);
+        postRepository.adjustCommentCount(postId, -1);
+        evictCachedPost(postId);
         
         logger.info("Comment deleted successfully: ID {}, by user: {}", commentId, username);
     }
 
     // Utility Methods
+    private void evictCachedPost(Long postId) {
+        Cache posts = cacheManager.getCache(CacheConfig.POSTS);
+        if (posts != null) {
+            posts.evict(postId);
+        }
+    }
+
     private CommentResponseDto toCommentResponseDto(Comment comment) {
         logger.debug("Converting Comment entity to CommentResponseDto");
         
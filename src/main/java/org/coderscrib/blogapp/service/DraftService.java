@@ -0,0 +1,302 @@
+package org.coderscrib.blogapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.coderscrib.blogapp.dto.draft.DraftCreateDto;
+import org.coderscrib.blogapp.dto.draft.DraftEditDto;
+import org.coderscrib.blogapp.dto.draft.DraftPatchDto;
+import org.coderscrib.blogapp.dto.draft.DraftResponseDto;
+import org.coderscrib.blogapp.dto.draft.DraftRevisionDto;
+import org.coderscrib.blogapp.dto.post.PostCreateDto;
+import org.coderscrib.blogapp.dto.post.PostResponseDto;
+import org.coderscrib.blogapp.entity.CompressedTextConverter;
+import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.PostDraft;
+import org.coderscrib.blogapp.entity.User;
+import org.coderscrib.blogapp.exception.BadRequestException;
+import org.coderscrib.blogapp.exception.ConflictException;
+import org.coderscrib.blogapp.exception.ResourceNotFoundException;
+import org.coderscrib.blogapp.repository.PostDraftRepository;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.UserRepository;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Draft autosave. Editors send small patches against the revision they last saw instead of
+ * the whole post; patches are applied to an in-memory working copy and the latest state of
+ * each draft is written out periodically as one JDBC batch, so a burst of autosaves costs a
+ * single row write. Publishing turns the draft into a post (or an update of its post).
+ * <p>
+ * Working copies live in this instance only; drafts must be served by a single node, as the
+ * timeline cache already assumes. Unflushed patches are lost on a crash, bounded by the flush interval.
+ */
+@Service
+public class DraftService {
+    private static final int MAX_CONTENT_LENGTH = 10000;
+
+    private final PostDraftRepository draftRepository;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final JdbcTemplate jdbcTemplate;
+    private final CompressedTextConverter contentConverter = new CompressedTextConverter();
+    private final Map<Long, WorkingCopy> workingCopies = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(DraftService.class);
+
+    @Value("${app.drafts.idle-evict-ms:600000}")
+    private long idleEvictMs;
+
+    public DraftService(PostDraftRepository draftRepository, UserRepository userRepository,
+                        PostRepository postRepository, PostService postService, JdbcTemplate jdbcTemplate) {
+        this.draftRepository = draftRepository;
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.postService = postService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // start a draft, empty or from an existing post
+    @Transactional
+    public DraftResponseDto createDraft(DraftCreateDto dto) {
+        User author = userRepository.findById(dto.getAuthorId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        Post post = null;
+        String title = dto.getTitle();
+        String content = dto.getContent();
+        if (dto.getPostId() != null) {
+            post = postRepository.findWithContentById(dto.getPostId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+            title = title != null ? title : post.getTitle();
+            content = content != null ? content : post.getContent();
+        }
+
+        PostDraft draft = draftRepository.save(PostDraft.builder()
+                .author(author)
+                .post(post)
+                .title(title != null ? title : "")
+                .content(content != null ? content : "")
+                .revision(0)
+                .updatedAt(LocalDateTime.now())
+                .build());
+        WorkingCopy copy = new WorkingCopy(draft);
+        workingCopies.put(draft.getId(), copy);
+        logger.info("Draft {} created for user {}", draft.getId(), author.getId());
+        return copy.toDto();
+    }
+
+    public DraftResponseDto getDraft(Long draftId) {
+        return withCopy(draftId, WorkingCopy::toDto);
+    }
+
+    // apply a patch made against baseRevision, anything else is a conflict the client must reload for
+    public DraftRevisionDto patchDraft(Long draftId, DraftPatchDto dto) {
+        return withCopy(draftId, copy -> {
+            if (copy.discarded) {
+                throw new ResourceNotFoundException("Draft not found");
+            }
+            if (copy.publishing) {
+                throw new ConflictException("Draft is being published");
+            }
+            if (dto.getBaseRevision() != copy.revision) {
+                throw new ConflictException("Draft is at revision " + copy.revision + ", reload it before saving");
+            }
+            String content = applyEdits(copy.content, dto.getEdits());
+            if (dto.getTitle() != null) {
+                copy.title = dto.getTitle();
+            }
+            copy.content = content;
+            copy.revision++;
+            copy.updatedAt = LocalDateTime.now();
+            return new DraftRevisionDto(draftId, copy.revision, content.length());
+        });
+    }
+
+    // the copy is frozen for patches until the post and the draft deletion commit together, or roll back
+    @Transactional
+    public PostResponseDto publishDraft(Long draftId) {
+        WorkingCopy copy = withCopy(draftId, live -> {
+            if (live.discarded) {
+                throw new ResourceNotFoundException("Draft not found");
+            }
+            if (live.publishing) {
+                throw new ConflictException("Draft is being published");
+            }
+            if (live.title.isBlank() || live.content.isBlank()) {
+                throw new BadRequestException("A draft needs a title and content before it can be published");
+            }
+            live.publishing = true;
+            return live;
+        });
+        AfterCommit.run(() -> discardCopy(draftId, copy), () -> {
+            synchronized (copy) {
+                copy.publishing = false;
+            }
+        });
+        // frozen while publishing, no patch can change it any more
+        PostCreateDto post = new PostCreateDto(copy.title, copy.content, copy.authorId, null);
+        PostResponseDto result = copy.postId == null
+                ? postService.createPost(post)
+                : postService.updatePost(copy.postId, post);
+        draftRepository.deleteById(draftId);
+        logger.info("Draft {} published as post {}", draftId, result.getId());
+        return result;
+    }
+
+    public void deleteDraft(Long draftId) {
+        withCopy(draftId, copy -> {
+            if (copy.publishing) {
+                throw new ConflictException("Draft is being published");
+            }
+            copy.discarded = true;
+            workingCopies.remove(draftId, copy);
+            return null;
+        });
+        draftRepository.deleteById(draftId);
+        logger.info("Draft {} deleted", draftId);
+    }
+
+    // one batch for every draft patched since the last run
+    @Scheduled(fixedDelayString = "${app.drafts.flush-interval-ms:5000}")
+    public void flush() {
+        List<WorkingCopy> flushed = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (WorkingCopy copy : workingCopies.values()) {
+            synchronized (copy) {
+                if (copy.discarded) {
+                    continue;
+                }
+                if (copy.revision > copy.persistedRevision) {
+                    rows.add(new Object[]{copy.title, contentConverter.convertToDatabaseColumn(copy.content),
+                            copy.revision, Timestamp.valueOf(copy.updatedAt), copy.id, copy.revision});
+                    flushed.add(copy);
+                } else if (!copy.publishing && now - copy.lastAccess > idleEvictMs) {
+                    // a caller still holding this copy sees the mark and reloads
+                    copy.evicted = true;
+                    workingCopies.remove(copy.id, copy);
+                }
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        // sorted together, row i still belongs to copy i
+        rows.sort(Comparator.comparingLong(row -> (Long) row[4]));
+        flushed.sort(Comparator.comparingLong(copy -> copy.id));
+        try {
+            // never let an older working copy overwrite a newer row
+            jdbcTemplate.batchUpdate("UPDATE post_draft SET title = ?, content = ?, revision = ?, updated_at = ? " +
+                    "WHERE id = ? AND revision < ?", rows);
+        } catch (RuntimeException e) {
+            logger.warn("Draft flush failed for {} drafts, retrying next cycle", rows.size(), e);
+            return;
+        }
+        for (int i = 0; i < flushed.size(); i++) {
+            WorkingCopy copy = flushed.get(i);
+            long revision = (Long) rows.get(i)[2];
+            synchronized (copy) {
+                copy.persistedRevision = Math.max(copy.persistedRevision, revision);
+            }
+        }
+        logger.debug("Flushed {} drafts", rows.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private String applyEdits(String content, List<DraftEditDto> edits) {
+        if (edits == null || edits.isEmpty()) {
+            return content;
+        }
+        StringBuilder text = new StringBuilder(content);
+        for (DraftEditDto edit : edits) {
+            // compared by subtraction, position + deleteCount can overflow
+            if (edit.getPosition() > text.length() || edit.getDeleteCount() > text.length() - edit.getPosition()) {
+                throw new BadRequestException("Edit at " + edit.getPosition() + " is outside the draft");
+            }
+            text.replace(edit.getPosition(), edit.getPosition() + edit.getDeleteCount(),
+                    edit.getText() != null ? edit.getText() : "");
+        }
+        if (text.length() > MAX_CONTENT_LENGTH) {
+            throw new BadRequestException("Draft content is limited to " + MAX_CONTENT_LENGTH + " characters");
+        }
+        return text.toString();
+    }
+
+    private WorkingCopy workingCopy(Long draftId) {
+        WorkingCopy copy = workingCopies.computeIfAbsent(draftId,
+                id -> draftRepository.findById(id).map(WorkingCopy::new).orElse(null));
+        if (copy == null) {
+            throw new ResourceNotFoundException("Draft not found");
+        }
+        copy.lastAccess = System.currentTimeMillis();
+        return copy;
+    }
+
+    // runs the action on the current working copy, reloading it if the flush evicted the one found
+    private <T> T withCopy(Long draftId, Function<WorkingCopy, T> action) {
+        while (true) {
+            WorkingCopy copy = workingCopy(draftId);
+            synchronized (copy) {
+                if (!copy.evicted) {
+                    return action.apply(copy);
+                }
+            }
+        }
+    }
+
+    private void discardCopy(Long draftId, WorkingCopy copy) {
+        synchronized (copy) {
+            copy.discarded = true;
+        }
+        workingCopies.remove(draftId, copy);
+    }
+
+    // guarded by its own monitor
+    private static final class WorkingCopy {
+        private final long id;
+        private final long authorId;
+        private final Long postId;
+        private String title;
+        private String content;
+        private long revision;
+        private long persistedRevision;
+        private LocalDateTime updatedAt;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private boolean discarded;
+        private boolean evicted;
+        private boolean publishing;
+
+        private WorkingCopy(PostDraft draft) {
+            this.id = draft.getId();
+            this.authorId = draft.getAuthor().getId();
+            this.postId = draft.getPost() != null ? draft.getPost().getId() : null;
+            this.title = draft.getTitle();
+            this.content = draft.getContent();
+            this.revision = draft.getRevision();
+            this.persistedRevision = draft.getRevision();
+            this.updatedAt = draft.getUpdatedAt();
+        }
+
+        private DraftResponseDto toDto() {
+            return new DraftResponseDto(id, authorId, postId, title, content, revision, updatedAt);
+        }
+    }
+}
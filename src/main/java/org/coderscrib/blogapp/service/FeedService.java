@@ -0,0 +1,246 @@
+package org.coderscrib.blogapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.User;
+import org.coderscrib.blogapp.exception.ResourceNotFoundException;
+import org.coderscrib.blogapp.repository.PostFeedEntryView;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.PostSitemapView;
+import org.coderscrib.blogapp.repository.UserRepository;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.FeedWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RSS/Atom feeds and the sitemap, served from pre-serialized bytes.
+ * <p>
+ * The global feed keeps its newest entries in memory and patches them as posts are published,
+ * edited or deleted; sitemap files are per id range and only the file a change falls into is
+ * rewritten. Author feeds are built from one query and dropped when one of the author's posts
+ * changes. Every document is serialized once per change, with a gzipped copy, and kept until
+ * the next change; changes apply after the writing transaction commits.
+ */
+@Service
+public class FeedService {
+    private static final Comparator<FeedWriter.Item> NEWEST_FIRST = Comparator
+            .comparing(FeedWriter.Item::published, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(FeedWriter.Item::id, Comparator.reverseOrder());
+
+    public enum Format { RSS, ATOM }
+
+    public record Document(byte[] body, byte[] gzipped, String etag, String gzippedEtag, long lastModified) {
+    }
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final Cache<Long, Map<Format, Document>> authorFeeds;
+    private final LocalDateTime started = LocalDateTime.now();
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    @Value("${app.feeds.title:WriteCue}")
+    private String siteTitle;
+
+    @Value("${app.feeds.size:20}")
+    private int feedSize;
+
+    // guarded by this; latest is null until first loaded, or after a delete left it short
+    private List<FeedWriter.Item> latest;
+    private final Map<Format, Document> globalFeeds = new EnumMap<>(Format.class);
+    private TreeMap<Long, LocalDateTime> sitemapPages;
+    private final Map<Long, Document> sitemaps = new HashMap<>();
+    private Document sitemapIndex;
+
+    public FeedService(PostRepository postRepository, UserRepository userRepository,
+                       @Value("${app.feeds.author-cache-size:10000}") long authorCacheSize) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.authorFeeds = Caffeine.newBuilder().maximumSize(authorCacheSize).build();
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized Document getFeed(Format format) {
+        if (latest == null) {
+            latest = new ArrayList<>(toItems(postRepository.findFeedEntries(PageRequest.ofSize(feedSize))));
+            logger.info("Loaded {} feed entries", latest.size());
+        }
+        return globalFeeds.computeIfAbsent(format, f -> render(f, siteTitle, baseUrl, "/feeds/" + feedPath(f), latest));
+    }
+
+    @Transactional(readOnly = true)
+    public Document getAuthorFeed(Long authorId, Format format) {
+        User author = userRepository.findById(authorId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return authorFeeds.get(authorId, id -> {
+            List<FeedWriter.Item> items = toItems(postRepository.findFeedEntriesByAuthorId(id, PageRequest.ofSize(feedSize)));
+            String title = siteTitle + " - " + author.getDisplayName();
+            String link = baseUrl + "/users/" + id;
+            Map<Format, Document> documents = new EnumMap<>(Format.class);
+            for (Format f : Format.values()) {
+                documents.put(f, render(f, title, link, "/feeds/users/" + id + "/" + feedPath(f), items));
+            }
+            return documents;
+        }).get(format);
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized Document getSitemapIndex() {
+        loadSitemapPages();
+        if (sitemapIndex == null) {
+            List<FeedWriter.Url> urls = new ArrayList<>(sitemapPages.size());
+            sitemapPages.forEach((page, lastModified) ->
+                    urls.add(new FeedWriter.Url(baseUrl + "/sitemaps/posts-" + page + ".xml", lastModified)));
+            sitemapIndex = document(FeedWriter.sitemapIndex(urls), last(sitemapPages.values()));
+        }
+        return sitemapIndex;
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized Document getSitemap(long page) {
+        loadSitemapPages();
+        if (!sitemapPages.containsKey(page)) {
+            throw new ResourceNotFoundException("Sitemap not found");
+        }
+        return sitemaps.computeIfAbsent(page, p -> {
+            long fromId = p * FeedWriter.SITEMAP_MAX_URLS + 1;
+            List<PostSitemapView> posts = postRepository.findSitemapEntries(fromId, fromId + FeedWriter.SITEMAP_MAX_URLS - 1);
+            List<FeedWriter.Url> urls = posts.stream()
+                    .map(post -> new FeedWriter.Url(postLink(post.getId()), post.getLastModified()))
+                    .toList();
+            return document(FeedWriter.sitemap(urls), last(posts.stream().map(PostSitemapView::getLastModified).toList()));
+        });
+    }
+
+    // a post was published or a published post was edited
+    public void onPostPublished(Post post) {
+        FeedWriter.Item item = toItem(post.getId(), post.getTitle(), post.getAuthor().getDisplayName(),
+                post.getCreatedAt(), post.getUpdatedAt(), post.getContent());
+        Long authorId = post.getAuthor().getId();
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                if (latest != null) {
+                    latest.removeIf(entry -> entry.id() == item.id());
+                    latest.add(item);
+                    latest.sort(NEWEST_FIRST);
+                    if (latest.size() > feedSize) {
+                        latest.subList(feedSize, latest.size()).clear();
+                    }
+                }
+                globalFeeds.clear();
+                touchSitemap(item.id());
+            }
+            authorFeeds.invalidate(authorId);
+        });
+    }
+
+    public void onPostDeleted(Long postId, Long authorId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                // the next post in line is only known to the database
+                if (latest != null && latest.removeIf(entry -> entry.id() == postId)) {
+                    latest = null;
+                }
+                globalFeeds.clear();
+                touchSitemap(postId);
+            }
+            authorFeeds.invalidate(authorId);
+        });
+    }
+
+    private void touchSitemap(long postId) {
+        if (sitemapPages == null) {
+            return;
+        }
+        long page = (postId - 1) / FeedWriter.SITEMAP_MAX_URLS;
+        sitemapPages.put(page, LocalDateTime.now());
+        sitemaps.remove(page);
+        sitemapIndex = null;
+    }
+
+    private void loadSitemapPages() {
+        if (sitemapPages == null) {
+            sitemapPages = new TreeMap<>();
+            postRepository.findSitemapPages().forEach(page -> sitemapPages.put(page.getId(), page.getLastModified()));
+            logger.info("Loaded {} sitemap pages", sitemapPages.size());
+        }
+    }
+
+    private Document render(Format format, String title, String link, String path, List<FeedWriter.Item> items) {
+        byte[] body = format == Format.RSS
+                ? FeedWriter.rss(title, link, "Latest posts on " + title, items)
+                : FeedWriter.atom(title, link, baseUrl + path, items, started);
+        return document(body, FeedWriter.lastModified(items));
+    }
+
+    private Document document(byte[] body, LocalDateTime lastModified) {
+        byte[] gzipped = gzip(body);
+        String hash = DigestUtils.md5DigestAsHex(body);
+        LocalDateTime modified = lastModified != null ? lastModified : started;
+        return new Document(body, gzipped, "\"" + hash + "\"", "\"" + hash + "-gz\"",
+                modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private List<FeedWriter.Item> toItems(List<PostFeedEntryView> posts) {
+        return posts.stream()
+                .map(post -> toItem(post.getId(), post.getTitle(), post.getAuthorName(), post.getCreatedAt(),
+                        post.getUpdatedAt(), post.getContent()))
+                .toList();
+    }
+
+    private FeedWriter.Item toItem(Long id, String title, String author, LocalDateTime createdAt,
+                                   LocalDateTime updatedAt, String content) {
+        return new FeedWriter.Item(id, postLink(id), title, author, createdAt, updatedAt, FeedWriter.summary(content));
+    }
+
+    private String postLink(Long postId) {
+        return baseUrl + "/posts/" + postId;
+    }
+
+    private static String feedPath(Format format) {
+        return format == Format.RSS ? "rss" : "atom";
+    }
+
+    private static LocalDateTime last(Iterable<LocalDateTime> times) {
+        LocalDateTime last = null;
+        for (LocalDateTime time : times) {
+            if (time != null && (last == null || time.isAfter(last))) {
+                last = time;
+            }
+        }
+        return last;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,64 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.entity.Follow;
+import org.coderscrib.blogapp.entity.User;
+import org.coderscrib.blogapp.exception.BadRequestException;
+import org.coderscrib.blogapp.exception.ConflictException;
+import org.coderscrib.blogapp.exception.ResourceNotFoundException;
+import org.coderscrib.blogapp.repository.FollowRepository;
+import org.coderscrib.blogapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class FollowService {
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final TimelineService timelineService;
+    private static final Logger logger = LoggerFactory.getLogger(FollowService.class);
+
+    public FollowService(FollowRepository followRepository, UserRepository userRepository,
+                         TimelineService timelineService) {
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.timelineService = timelineService;
+    }
+
+    public void follow(Long followerId, Long followeeId) {
+        logger.info("Attempting to follow user ID: {} by user ID: {}", followeeId, followerId);
+
+        if (followerId.equals(followeeId)) {
+            logger.warn("Follow operation failed: User {} tried to follow themselves", followerId);
+            throw new BadRequestException("You cannot follow yourself");
+        }
+        User follower = userRepository.findById(followerId)
+                .orElseThrow(() -> ResourceNotFoundException.create("User", "id", followerId));
+        User followee = userRepository.findById(followeeId)
+                .orElseThrow(() -> ResourceNotFoundException.create("User", "id", followeeId));
+
+        if (followRepository.existsByFollower_IdAndFollowee_Id(followerId, followeeId)) {
+            logger.warn("Follow operation failed: User {} already follows user {}", followerId, followeeId);
+            throw new ConflictException("You already follow this user");
+        }
+        followRepository.save(Follow.builder()
+                .follower(follower)
+                .followee(followee)
+                .build());
+        timelineService.invalidate(followerId);
+        logger.info("User {} now follows user {}", followerId, followeeId);
+    }
+
+    public void unfollow(Long followerId, Long followeeId) {
+        logger.info("Attempting to unfollow user ID: {} by user ID: {}", followeeId, followerId);
+
+        if (followRepository.deleteByFollowerAndFollowee(followerId, followeeId) == 0) {
+            logger.warn("Unfollow operation failed: User {} does not follow user {}", followerId, followeeId);
+            throw new BadRequestException("You do not follow this user");
+        }
+        timelineService.invalidate(followerId);
+        logger.info("User {} unfollowed user {}", followerId, followeeId);
+    }
+}
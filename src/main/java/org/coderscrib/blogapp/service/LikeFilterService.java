@@ -0,0 +1,141 @@
+package org.coderscrib.blogapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.coderscrib.blogapp.exception.BadRequestException;
+import org.coderscrib.blogapp.repository.LikeRepository;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-post Bloom filters of the users who liked the post, answering "has this user liked it"
+ * without touching the likes table when the answer is no.
+ * <p>
+ * A filter is built with one query the first time a post is asked about and kept while the post
+ * stays hot; Caffeine evicts the rest once the filters together exceed
+ * {@code app.likes.filter-max-bytes}. New likes are added after commit. Unlikes are not removed,
+ * they only leave false positives, which every caller confirms against the database.
+ * A filter that outgrows its capacity is dropped and rebuilt bigger on the next ask.
+ * <p>
+ * Filters are always built from the primary: one built from a lagging replica would miss
+ * recent likes for as long as it stays cached. Lookups run outside any transaction, so a build
+ * is a short primary transaction of its own and never holds a second connection next to a
+ * caller's; called inside a transaction, no filters are built. Only reads use the filters;
+ * writes such as unlike never skip the database on a filter's word.
+ */
+@Service
+public class LikeFilterService {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 64;
+    private static final int EPOCH_SLOTS = 4096;
+
+    private final LikeRepository likeRepository;
+    private final TransactionTemplate primaryRead;
+    private final TransactionTemplate replicaRead;
+    private final Cache<Long, BloomFilter> filters;
+    // bumped on every like of a post in the slot, a build that overlaps one is thrown away
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_SLOTS);
+    private final int maxPostIds;
+    private final int buildsPerRequest;
+    private static final Logger logger = LoggerFactory.getLogger(LikeFilterService.class);
+
+    public LikeFilterService(LikeRepository likeRepository, PlatformTransactionManager transactionManager,
+                             @Value("${app.likes.filter-max-bytes:67108864}") long maxBytes,
+                             @Value("${app.likes.filter-max-post-ids:100}") int maxPostIds,
+                             @Value("${app.likes.filter-builds-per-request:5}") int buildsPerRequest) {
+        this.likeRepository = likeRepository;
+        // not read-only, so the routing datasource picks the primary
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.replicaRead = new TransactionTemplate(transactionManager);
+        this.replicaRead.setReadOnly(true);
+        this.maxPostIds = maxPostIds;
+        this.buildsPerRequest = buildsPerRequest;
+        this.filters = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long postId, BloomFilter filter) -> (int) Math.min(Integer.MAX_VALUE, filter.sizeInBytes()))
+                .build();
+    }
+
+    // call inside the transaction that inserted the like
+    public void onLiked(Long userId, Long postId) {
+        AfterCommit.run(() -> {
+            epochs.incrementAndGet(slot(postId));
+            BloomFilter filter = filters.getIfPresent(postId);
+            if (filter == null) {
+                return;
+            }
+            filter.add(userId);
+            if (filter.isOverCapacity()) {
+                filters.invalidate(postId);
+            }
+        });
+    }
+
+    /**
+     * Returns which of the given posts the user has liked, in the order asked.
+     * Posts whose filter rules the user out are answered from memory; the rest, including
+     * posts without a filter, are checked with a single query.
+     *
+     * @param userId  the user
+     * @param postIds at most {@code app.likes.filter-max-post-ids} post ids
+     * @return the liked subset of {@code postIds}
+     */
+    public List<Long> likedPostIds(Long userId, Collection<Long> postIds) {
+        if (postIds.size() > maxPostIds) {
+            throw new BadRequestException("At most " + maxPostIds + " post ids can be checked at once");
+        }
+        Set<Long> unique = new LinkedHashSet<>(postIds);
+        unique.remove(null);
+        // a build would join the caller's transaction, possibly on the replica
+        boolean canBuild = !TransactionSynchronizationManager.isActualTransactionActive();
+        int builds = 0;
+        List<Long> candidates = new ArrayList<>();
+        for (Long postId : unique) {
+            BloomFilter filter = filters.getIfPresent(postId);
+            if (filter == null && canBuild && builds < buildsPerRequest) {
+                filter = build(postId);
+                builds++;
+            }
+            if (filter == null || filter.mightContain(userId)) {
+                candidates.add(postId);
+            }
+        }
+        logger.debug("Liked lookup for user {}: {} posts, {} left for the database, {} filters built",
+                userId, unique.size(), candidates.size(), builds);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> liked = new HashSet<>(replicaRead.execute(status -> likeRepository.findLikedPostIds(userId, candidates)));
+        return unique.stream().filter(liked::contains).toList();
+    }
+
+    // null when a like committed during the build, the post is then checked in the database
+    private BloomFilter build(Long postId) {
+        int slot = slot(postId);
+        long before = epochs.get(slot);
+        List<Long> userIds = primaryRead.execute(status -> likeRepository.findUserIdsByPostId(postId));
+        BloomFilter filter = BloomFilter.forCapacity(Math.max(MIN_CAPACITY, userIds.size() * 2), FALSE_POSITIVE_RATE);
+        userIds.forEach(filter::add);
+        filters.put(postId, filter);
+        if (epochs.get(slot) != before) {
+            // a like committed while we read, it may be missing from the filter
+            filters.invalidate(postId);
+            return null;
+        }
+        return filter;
+    }
+
+    private static int slot(Long postId) {
+        return Long.hashCode(postId * 0x9E3779B97F4A7C15L) & (EPOCH_SLOTS - 1);
+    }
+}
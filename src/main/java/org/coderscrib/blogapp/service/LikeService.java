@@ -1,18 +1,21 @@
 package org.coderscrib.blogapp.service;
 
+import org.coderscrib.blogapp.config.CacheConfig;
 import org.coderscrib.blogapp.dto.user.UserSummaryDto;
 import org.coderscrib.blogapp.entity.Like;
-import org.coderscrib.blogapp.entity.Post;
 import org.coderscrib.blogapp.entity.User;
 import org.coderscrib.blogapp.exception.BadRequestException;
-import org.coderscrib.blogapp.exception.ConflictException;
 import org.coderscrib.blogapp.exception.ResourceNotFoundException;
 import org.coderscrib.blogapp.repository.LikeRepository;
 import org.coderscrib.blogapp.repository.PostRepository;
 import org.coderscrib.blogapp.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
@@ -25,85 +28,92 @@ public class LikeService {
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final NotificationService notificationService;
+    private final TrendingService trendingService;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final LikeFilterService likeFilterService;
     private static final Logger logger = LoggerFactory.getLogger(LikeService.class);
 
     public LikeService(LikeRepository likeRepository, UserRepository userRepository, 
-                      PostRepository postRepository, NotificationService notificationService) {
+                      PostRepository postRepository, NotificationService notificationService,
+                      TrendingService trendingService, LikeWriteBuffer likeWriteBuffer,
+                      LikeFilterService likeFilterService) {
         this.likeRepository = likeRepository;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.notificationService = notificationService;
+        this.trendingService = trendingService;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.likeFilterService = likeFilterService;
     }
 
+    // when on, like and unlike are idempotent and only written by the next LikeWriteBuffer flush
+    @Value("${app.likes.write-behind:false}")
+    private boolean writeBehind;
+
     //Like
+    // one INSERT ... ON CONFLICT DO NOTHING, liking twice is a no-op
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public void likePost(Long userId, Long postId) {
         logger.info("Attempting to like post ID: {} by user ID: {}", postId, userId);
-        
-        logger.debug("Retrieving user with ID: {}", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.warn("Like operation failed: User not found with ID: {}", userId);
-                    return ResourceNotFoundException.create("User", "id", userId);
-                });
-                
-        logger.debug("Retrieving post with ID: {}", postId);
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> {
-                    logger.warn("Like operation failed: Post not found with ID: {}", postId);
-                    return ResourceNotFoundException.create("Post", "id", postId);
-                });
+        if (writeBehind) {
+            likeWriteBuffer.like(userId, postId);
+            return;
+        }
 
-        logger.debug("Checking if user already liked the post");
-        if(likeRepository.existsByUserAndPost(user, post)){
-            logger.warn("Like operation failed: User {} already liked post {}", user.getUsername(), post.getTitle());
-            throw new ConflictException("You have already liked this post");
+        int inserted;
+        try {
+            inserted = likeRepository.insertIfAbsent(userId, postId);
+        } catch (DataIntegrityViolationException e) {
+            // duplicates are absorbed by the insert, so this is a missing user or post
+            logger.warn("Like operation failed: User {} or post {} not found", userId, postId);
+            throw new ResourceNotFoundException("User or post not found");
         }
-        
-        logger.debug("Creating like entity for user: {} on post: {}", user.getUsername(), post.getTitle());
-        Like like = Like.builder()
-                .user(user)
-                .post(post)
-                .build();
-                
-        likeRepository.save(like);
-        logger.info("Post liked successfully: User {} liked post {}", user.getUsername(), post.getTitle());
-        
-        // Send notification to post author about the like
+        if (inserted == 0) {
+            logger.debug("User {} already liked post {}", userId, postId);
+            return;
+        }
+
+        postRepository.adjustLikeCount(postId, 1);
+        likeFilterService.onLiked(userId, postId);
+        trendingService.recordLike(postId);
+        logger.info("Post liked successfully: User {} liked post {}", userId, postId);
+
+        // Send notification to post author about the like, only now are the entities needed
         logger.debug("Sending notification to post author about the like");
-        notificationService.notifyPostLike(post, user);
+        notificationService.notifyPostLike(postRepository.getReferenceById(postId), userRepository.getReferenceById(userId));
     }
     //unlike post
+    // one DELETE, unliking a post that is not liked is a no-op
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public void unlikePost(Long userId, Long postId) {
         logger.info("Attempting to unlike post ID: {} by user ID: {}", postId, userId);
-        
-        logger.debug("Retrieving user with ID: {}", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.warn("Unlike operation failed: User not found with ID: {}", userId);
-                    return ResourceNotFoundException.create("User", "id", userId);
-                });
-                
-        logger.debug("Retrieving post with ID: {}", postId);
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> {
-                    logger.warn("Unlike operation failed: Post not found with ID: {}", postId);
-                    return ResourceNotFoundException.create("Post", "id", postId);
-                });
-                
-        logger.debug("Checking if user has liked the post");
-        Optional<Like> like = likeRepository.findByUserAndPost(user, post);
-        
-        if(like.isEmpty()){
-            logger.warn("Unlike operation failed: User {} has not liked post {}", user.getUsername(), post.getTitle());
-            throw new BadRequestException("You have not liked this post");
+        if (writeBehind) {
+            likeWriteBuffer.unlike(userId, postId);
+            return;
         }
-        
-        logger.debug("Deleting like for user: {} on post: {}", user.getUsername(), post.getTitle());
-        likeRepository.delete(like.get());
-        
-        logger.info("Post unliked successfully: User {} unliked post {}", user.getUsername(), post.getTitle());
+
+        if (likeRepository.deleteByUserIdAndPostId(userId, postId) == 0) {
+            logger.debug("User {} has not liked post {}", userId, postId);
+            return;
+        }
+        postRepository.adjustLikeCount(postId, -1);
+
+        logger.info("Post unliked successfully: User {} unliked post {}", userId, postId);
+    }
+    // which of the posts the user liked, for marking a feed page in one call; no transaction, see LikeFilterService
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Long> likedPostIds(Long userId, List<Long> postIds) {
+        if (userId == null || userId <= 0) {
+            logger.warn("Liked posts lookup failed: Invalid user ID: {}", userId);
+            throw new BadRequestException("Invalid user ID");
+        }
+        if (postIds == null || postIds.isEmpty()) {
+            return List.of();
+        }
+        return likeFilterService.likedPostIds(userId, postIds);
     }
     // get liked users on the post
+    @Transactional(readOnly = true)
     public List<UserSummaryDto> findAllLikedUsers(Long postId) {
         logger.info("Retrieving all users who liked post ID: {}", postId);
         
@@ -133,6 +143,7 @@ public class LikeService {
 
     }
     // get like Count of the Post
+    @Transactional(readOnly = true)
     public int likeCount(Long postId){
         logger.info("Retrieving like count for post ID: {}", postId);
         
@@ -141,8 +152,13 @@ public class LikeService {
             throw new BadRequestException("Invalid post ID");
         }
         
-        logger.debug("Counting likes for post ID: {}", postId);
-        int count = likeRepository.countByPostId(postId);
+        // the stored counter, kept by the like and unlike UPDATEs and reconciled nightly
+        int count = postRepository.findVersionById(postId)
+                .orElseThrow(() -> {
+                    logger.warn("Like count retrieval failed: Post not found with ID: {}", postId);
+                    return new ResourceNotFoundException("Post not found");
+                })
+                .getLikeCount();
         
         logger.debug("Post ID: {} has {} likes", postId, count);
         return count;
@@ -0,0 +1,200 @@
+package org.coderscrib.blogapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.coderscrib.blogapp.config.CacheConfig;
+import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.User;
+import org.coderscrib.blogapp.exception.BlogAppException;
+import org.coderscrib.blogapp.repository.LikeRepository;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind for likes, used by LikeService when app.likes.write-behind is on.
+ * <p>
+ * A like or unlike only records the state the user wants for the post; repeated toggles of
+ * the same pair overwrite each other, so like, unlike, like costs nothing until the flush.
+ * Every flush-interval the net changes are written in one transaction: the missing likes are
+ * batch-inserted, the withdrawn ones batch-deleted, like counts adjusted once per post, and
+ * notifications sent for the likes that were actually added. Unknown users or posts are dropped.
+ * <p>
+ * At most max-pending pairs wait in memory; a caller that finds the buffer full flushes it
+ * itself. Pending likes are flushed on shutdown and lost on a crash, bounded by the flush interval.
+ */
+@Service
+public class LikeWriteBuffer {
+    private final LikeRepository likeRepository;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final NotificationService notificationService;
+    private final TrendingService trendingService;
+    private final LikeFilterService likeFilterService;
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<LikeKey, Boolean> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    @Value("${app.likes.max-pending:10000}")
+    private int maxPending;
+
+    private record LikeKey(long userId, long postId) {
+    }
+
+    public LikeWriteBuffer(LikeRepository likeRepository, UserRepository userRepository, PostRepository postRepository,
+                           NotificationService notificationService, TrendingService trendingService,
+                           LikeFilterService likeFilterService, CacheManager cacheManager, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager) {
+        this.likeRepository = likeRepository;
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.notificationService = notificationService;
+        this.trendingService = trendingService;
+        this.likeFilterService = likeFilterService;
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void like(Long userId, Long postId) {
+        record(new LikeKey(userId, postId), true);
+    }
+
+    public void unlike(Long userId, Long postId) {
+        record(new LikeKey(userId, postId), false);
+    }
+
+    private void record(LikeKey key, boolean liked) {
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            flush();
+            if (pending.size() >= maxPending) {
+                throw new BlogAppException("Too many pending likes, try again later");
+            }
+        }
+        pending.put(key, liked);
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<LikeKey, Boolean> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                int[] written = transactionTemplate.execute(status -> write(batch));
+                logger.debug("Flushed {} like changes: {} added, {} removed", batch.size(), written[0], written[1]);
+            } catch (RuntimeException e) {
+                logger.warn("Like flush failed for {} changes, retrying next cycle", batch.size(), e);
+                // anything recorded meanwhile is newer than what failed
+                batch.forEach(pending::putIfAbsent);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // removes entry by entry, a toggle racing with the drain lands in the next batch
+    private Map<LikeKey, Boolean> drain() {
+        Map<LikeKey, Boolean> batch = new HashMap<>();
+        for (LikeKey key : pending.keySet()) {
+            Boolean liked = pending.remove(key);
+            if (liked != null) {
+                batch.put(key, liked);
+            }
+        }
+        return batch;
+    }
+
+    private int[] write(Map<LikeKey, Boolean> batch) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> postIds = new HashSet<>();
+        batch.keySet().forEach(key -> {
+            userIds.add(key.userId());
+            postIds.add(key.postId());
+        });
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+        Map<Long, Post> posts = new HashMap<>();
+        postRepository.findAllById(postIds).forEach(post -> posts.put(post.getId(), post));
+        Set<LikeKey> existing = new HashSet<>();
+        for (Object[] pair : likeRepository.findPairs(userIds, postIds)) {
+            existing.add(new LikeKey((Long) pair[0], (Long) pair[1]));
+        }
+
+        List<LikeKey> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Map.Entry<LikeKey, Boolean> change : batch.entrySet()) {
+            LikeKey key = change.getKey();
+            User user = users.get(key.userId());
+            Post post = posts.get(key.postId());
+            if (user == null || post == null) {
+                logger.warn("Dropping like change of user {} on post {}: not found", key.userId(), key.postId());
+                continue;
+            }
+            if (change.getValue() && !existing.contains(key)) {
+                inserts.add(key);
+                deltas.merge(key.postId(), 1, Integer::sum);
+            } else if (!change.getValue() && existing.contains(key)) {
+                deletes.add(new Object[]{key.userId(), key.postId()});
+                deltas.merge(key.postId(), -1, Integer::sum);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO likes (id, post_id, user_id, created_at) " +
+                    "VALUES (nextval('likes_seq'), ?, ?, LOCALTIMESTAMP)",
+                    inserts.stream().map(key -> new Object[]{key.postId(), key.userId()}).toList());
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM likes WHERE user_id = ? AND post_id = ?", deletes);
+        }
+        List<Object[]> counts = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> {
+            if (delta != 0) {
+                counts.add(new Object[]{delta, delta, postId});
+            }
+        });
+        if (!counts.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE post SET like_count = CASE WHEN like_count + ? < 0 THEN 0 " +
+                    "ELSE like_count + ? END WHERE id = ?", counts);
+        }
+        for (LikeKey key : inserts) {
+            likeFilterService.onLiked(key.userId(), key.postId());
+            trendingService.recordLike(key.postId());
+            notificationService.notifyPostLike(posts.get(key.postId()), users.get(key.userId()));
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.POSTS);
+        if (cache != null) {
+            deltas.keySet().forEach(cache::evict);
+        }
+        return new int[]{inserts.size(), deletes.size()};
+    }
+}
@@ -0,0 +1,42 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Repairs drift in the denormalized like/comment counters of {@link org.coderscrib.blogapp.entity.Post}.
+ * Drift can appear when likes or comments disappear through cascades (e.g. a user is deleted)
+ * rather than through LikeService/CommentService. Posts are recounted in id ranges, each range
+ * in its own short transaction.
+ */
+@Service
+public class PostCounterReconciler {
+    private final PostRepository postRepository;
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterReconciler.class);
+
+    @Value("${app.posts.counter-reconcile-batch-size:1000}")
+    private int batchSize;
+
+    public PostCounterReconciler(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @Scheduled(cron = "${app.posts.counter-reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        long maxId = postRepository.findMaxId();
+        logger.info("Reconciling post counters up to post ID: {}", maxId);
+
+        int likesFixed = 0;
+        int commentsFixed = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            long toId = fromId + batchSize - 1;
+            likesFixed += postRepository.reconcileLikeCounts(fromId, toId);
+            commentsFixed += postRepository.reconcileCommentCounts(fromId, toId);
+        }
+        logger.info("Post counters reconciled: {} like counts and {} comment counts repaired", likesFixed, commentsFixed);
+    }
+}
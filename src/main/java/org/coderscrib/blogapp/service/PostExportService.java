@@ -0,0 +1,67 @@
+package org.coderscrib.blogapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.coderscrib.blogapp.dto.post.PostExportDto;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams every post with its author and counters as NDJSON (one JSON object per line).
+ * Rows come from a forward-only cursor over a projection, so neither the persistence
+ * context nor the heap grows with the size of the table.
+ */
+@Service
+public class PostExportService {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final PostRepository postRepository;
+    private final ObjectWriter rowWriter;
+    private final ObjectMapper objectMapper;
+    private static final Logger logger = LoggerFactory.getLogger(PostExportService.class);
+
+    public PostExportService(PostRepository postRepository, ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(PostExportDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPosts(OutputStream out, boolean gzip) throws IOException {
+        logger.info("Starting post export (gzip: {})", gzip);
+        long started = System.currentTimeMillis();
+        long rows = 0;
+
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : null;
+        try (Stream<PostExportDto> posts = postRepository.streamAllForExport();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip ? gzipOut : out)) {
+            // the servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // rows are separated by the newline written below, not by the default root separator
+            generator.setRootValueSeparator(null);
+            Iterator<PostExportDto> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                rows++;
+            }
+            generator.flush();
+        }
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        logger.info("Post export finished: {} posts in {} ms", rows, System.currentTimeMillis() - started);
+    }
+}
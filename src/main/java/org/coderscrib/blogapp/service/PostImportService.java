@@ -0,0 +1,162 @@
+package org.coderscrib.blogapp.service;
+
+import jakarta.persistence.EntityManager;
+import org.coderscrib.blogapp.dto.comment.CommentImportDto;
+import org.coderscrib.blogapp.dto.post.PostImportDto;
+import org.coderscrib.blogapp.dto.post.PostImportResultDto;
+import org.coderscrib.blogapp.entity.Comment;
+import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.User;
+import org.coderscrib.blogapp.exception.BadRequestException;
+import org.coderscrib.blogapp.exception.ResourceNotFoundException;
+import org.coderscrib.blogapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Bulk import of posts with their comments.
+ * Ids come from pooled sequences, so Hibernate can send the inserts as JDBC batches
+ * ({@code hibernate.jdbc.batch_size}). Each batch commits in its own transaction, which also
+ * applies its search, tag, related-post and feed updates, so memory stays flat over large
+ * imports. A failing batch rolls back alone; the batches before it stay imported.
+ */
+@Service
+public class PostImportService {
+    private final EntityManager entityManager;
+    private final UserRepository userRepository;
+    private final SearchService searchService;
+    private final TagIndexService tagIndexService;
+    private final RelatedPostService relatedPostService;
+    private final FeedService feedService;
+    private final TimelineService timelineService;
+    private final TransactionTemplate transactionTemplate;
+    private static final Logger logger = LoggerFactory.getLogger(PostImportService.class);
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${app.import.max-posts:10000}")
+    private int maxPosts;
+
+    public PostImportService(EntityManager entityManager, UserRepository userRepository, SearchService searchService,
+                             TagIndexService tagIndexService, RelatedPostService relatedPostService,
+                             FeedService feedService, TimelineService timelineService,
+                             PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.userRepository = userRepository;
+        this.searchService = searchService;
+        this.tagIndexService = tagIndexService;
+        this.relatedPostService = relatedPostService;
+        this.feedService = feedService;
+        this.timelineService = timelineService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public PostImportResultDto importPosts(List<PostImportDto> posts) {
+        logger.info("Attempting to import {} posts", posts.size());
+        if (posts.size() > maxPosts) {
+            logger.warn("Import failed: {} posts exceed the limit of {}", posts.size(), maxPosts);
+            throw new BadRequestException("At most " + maxPosts + " posts can be imported at once");
+        }
+
+        Map<Long, User> users = loadUsers(posts);
+        long started = System.currentTimeMillis();
+        int imported = 0;
+        int commentCount = 0;
+        int pending = 0;
+        List<PostImportDto> batch = new ArrayList<>(batchSize);
+        try {
+            for (PostImportDto dto : posts) {
+                batch.add(dto);
+                pending += 1 + Optional.ofNullable(dto.getComments()).map(List::size).orElse(0);
+                if (pending >= batchSize) {
+                    commentCount += importBatch(batch, users);
+                    imported += batch.size();
+                    batch.clear();
+                    pending = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                commentCount += importBatch(batch, users);
+                imported += batch.size();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Import failed after {} of {} posts were committed", imported, posts.size(), e);
+            throw e;
+        }
+
+        logger.info("Imported {} posts and {} comments in {} ms", posts.size(), commentCount,
+                System.currentTimeMillis() - started);
+        return new PostImportResultDto(posts.size(), commentCount);
+    }
+
+    // one query for every referenced user; the detached instances stay usable as references after clear()
+    private Map<Long, User> loadUsers(List<PostImportDto> posts) {
+        Set<Long> userIds = new HashSet<>();
+        for (PostImportDto post : posts) {
+            userIds.add(post.getAuthorId());
+            Optional.ofNullable(post.getComments()).orElse(Collections.emptyList())
+                    .forEach(comment -> userIds.add(comment.getUserId()));
+        }
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+        for (Long userId : userIds) {
+            if (!users.containsKey(userId)) {
+                logger.warn("Import failed: User not found with ID: {}", userId);
+                throw ResourceNotFoundException.create("User", "id", userId);
+            }
+        }
+        return users;
+    }
+
+    // one transaction per batch: its index updates run at its own commit, and the persistence
+    // context with the batch's posts is closed with it
+    private int importBatch(List<PostImportDto> dtos, Map<Long, User> users) {
+        return transactionTemplate.execute(status -> {
+            int commentCount = 0;
+            List<Post> batch = new ArrayList<>(dtos.size());
+            for (PostImportDto dto : dtos) {
+                List<CommentImportDto> comments = Optional.ofNullable(dto.getComments()).orElse(Collections.emptyList());
+                Post post = Post.builder()
+                        .title(dto.getTitle())
+                        .body(PostService.renderBody(dto.getContent()))
+                        .author(users.get(dto.getAuthorId()))
+                        .likes(new ArrayList<>())
+                        .comments(new ArrayList<>())
+                        .commentCount(comments.size())
+                        .build();
+                entityManager.persist(post);
+                batch.add(post);
+
+                for (CommentImportDto commentDto : comments) {
+                    entityManager.persist(Comment.builder()
+                            .content(commentDto.getContent())
+                            .user(users.get(commentDto.getUserId()))
+                            .post(post)
+                            .build());
+                    commentCount++;
+                }
+            }
+            entityManager.flush();
+            // one follower query per author of the batch
+            Map<Long, List<Long>> postIdsByAuthor = new HashMap<>();
+            for (Post post : batch) {
+                postIdsByAuthor.computeIfAbsent(post.getAuthor().getId(), k -> new ArrayList<>()).add(post.getId());
+            }
+            postIdsByAuthor.forEach(timelineService::onPostsCreated);
+            for (Post post : batch) {
+                searchService.index(post.getId(), post.getTitle(), post.getContent());
+                tagIndexService.index(post.getId(), Set.of(), post.getTags());
+                relatedPostService.index(post.getId(), null, post.getBody().getSignature());
+                feedService.onPostPublished(post);
+            }
+            return commentCount;
+        });
+    }
+}
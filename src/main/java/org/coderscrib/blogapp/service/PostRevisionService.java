@@ -0,0 +1,103 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.dto.post.PostRevisionDto;
+import org.coderscrib.blogapp.dto.post.PostRevisionListDto;
+import org.coderscrib.blogapp.dto.post.PostRevisionSummaryDto;
+import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.PostRevision;
+import org.coderscrib.blogapp.exception.ResourceNotFoundException;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.PostRevisionRepository;
+import org.coderscrib.blogapp.util.TextDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * History of post edits. Each revision stores a delta against the one before it, and every
+ * app.posts.revision-snapshot-interval revisions a full snapshot, so rebuilding any revision
+ * reads at most that many rows.
+ */
+@Service
+@Transactional
+public class PostRevisionService {
+    private final PostRevisionRepository revisionRepository;
+    private final PostRepository postRepository;
+    private static final Logger logger = LoggerFactory.getLogger(PostRevisionService.class);
+
+    @Value("${app.posts.revision-snapshot-interval:10}")
+    private int snapshotInterval;
+
+    public PostRevisionService(PostRevisionRepository revisionRepository, PostRepository postRepository) {
+        this.revisionRepository = revisionRepository;
+        this.postRepository = postRepository;
+    }
+
+    public void recordCreated(Post post) {
+        save(post, 1, post.getTitle(), post.getContent(), null);
+    }
+
+    // previous title/content are what the post held before the update
+    public void recordUpdated(Post post, String previousTitle, String previousContent) {
+        int latest = revisionRepository.findLatestNumber(post.getId());
+        if (latest == 0) {
+            // post predates revision history, keep the state it had as the baseline
+            save(post, 1, previousTitle, previousContent, null);
+            latest = 1;
+        }
+        save(post, latest + 1, post.getTitle(), post.getContent(), previousContent);
+    }
+
+    @Transactional(readOnly = true)
+    public PostRevisionListDto getRevisions(Long postId) {
+        if (!postRepository.existsByIdAndPublishedTrue(postId)) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+        List<PostRevisionSummaryDto> revisions = revisionRepository.findSummariesByPostId(postId);
+        long storedChars = revisions.stream().mapToLong(PostRevisionSummaryDto::getStoredLength).sum();
+        long fullCopyChars = revisions.stream().mapToLong(PostRevisionSummaryDto::getContentLength).sum();
+        return new PostRevisionListDto(revisions, storedChars, fullCopyChars);
+    }
+
+    @Transactional(readOnly = true)
+    public PostRevisionDto getRevision(Long postId, int number) {
+        if (!postRepository.existsByIdAndPublishedTrue(postId)) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+        List<PostRevision> chain = revisionRepository.findChainTo(postId, number);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getRevisionNumber() != number) {
+            throw new ResourceNotFoundException("Revision not found");
+        }
+        String content = chain.get(0).getPayload();
+        for (PostRevision revision : chain.subList(1, chain.size())) {
+            content = TextDelta.apply(content, revision.getPayload());
+        }
+        PostRevision target = chain.get(chain.size() - 1);
+        return new PostRevisionDto(postId, number, target.getTitle(), content, target.getCreatedAt());
+    }
+
+    private void save(Post post, int number, String title, String content, String previousContent) {
+        boolean snapshot = previousContent == null || (number - 1) % snapshotInterval == 0;
+        String payload = snapshot ? content : TextDelta.diff(previousContent, content);
+        if (payload.length() >= content.length()) {
+            // a rewrite, the delta would not save anything
+            snapshot = true;
+            payload = content;
+        }
+        revisionRepository.save(PostRevision.builder()
+                .post(post)
+                .revisionNumber(number)
+                .title(title)
+                .snapshot(snapshot)
+                .payload(payload)
+                .contentLength(content.length())
+                .payloadLength(payload.length())
+                .build());
+        logger.debug("Revision {} of post {} stored as {} ({} of {} chars)", number, post.getId(),
+                snapshot ? "snapshot" : "delta", payload.length(), content.length());
+    }
+}
@@ -1,40 +1,95 @@
 package org.coderscrib.blogapp.service;
 
+import org.coderscrib.blogapp.config.CacheConfig;
+import org.coderscrib.blogapp.dto.post.PostBatchDto;
 import org.coderscrib.blogapp.dto.post.PostCreateDto;
+import org.coderscrib.blogapp.dto.post.PostFeedPageDto;
 import org.coderscrib.blogapp.dto.post.PostResponseDto;
 import org.coderscrib.blogapp.dto.post.PostSummaryDto;
-import org.coderscrib.blogapp.entity.Comment;
-import org.coderscrib.blogapp.entity.Like;
 import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.PostContent;
 import org.coderscrib.blogapp.entity.User;
+import org.coderscrib.blogapp.exception.BadRequestException;
 import org.coderscrib.blogapp.exception.ResourceNotFoundException;
 import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.PostVersionView;
 import org.coderscrib.blogapp.repository.UserRepository;
+import org.coderscrib.blogapp.util.FeedCursor;
+import org.coderscrib.blogapp.util.MarkdownRenderer;
+import org.coderscrib.blogapp.util.MinHash;
+import org.coderscrib.blogapp.util.TagIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PostService {
-    @Value("${app.base-url}")
-    private String baseUrl;
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+
+    @Value("${app.posts.batch-max-ids:200}")
+    private int batchMaxIds;
 
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final TimelineService timelineService;
+    private final SearchService searchService;
+    private final TrendingService trendingService;
+    private final CacheManager cacheManager;
+    private final ShortLinkService shortLinkService;
+    private final PostRevisionService postRevisionService;
+    private final ScheduledPublishService scheduledPublishService;
+    private final TagIndexService tagIndexService;
+    private final RelatedPostService relatedPostService;
+    private final FeedService feedService;
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
 
-    public PostService(PostRepository postRepository, UserRepository userRepository) {
+    public PostService(PostRepository postRepository, UserRepository userRepository, TimelineService timelineService,
+                       SearchService searchService, TrendingService trendingService, CacheManager cacheManager,
+                       ShortLinkService shortLinkService, PostRevisionService postRevisionService,
+                       ScheduledPublishService scheduledPublishService, TagIndexService tagIndexService,
+                       RelatedPostService relatedPostService, FeedService feedService) {
         this.postRepository = postRepository;
         this.userRepository= userRepository;
+        this.timelineService = timelineService;
+        this.searchService = searchService;
+        this.trendingService = trendingService;
+        this.cacheManager = cacheManager;
+        this.shortLinkService = shortLinkService;
+        this.postRevisionService = postRevisionService;
+        this.scheduledPublishService = scheduledPublishService;
+        this.tagIndexService = tagIndexService;
+        this.relatedPostService = relatedPostService;
+        this.feedService = feedService;
+    }
+    // a new body with its html and MinHash, derived here once per write rather than in the entity
+    public static PostContent renderBody(String text) {
+        return PostContent.of(text, MarkdownRenderer.render(text), MinHash.signature(text));
     }
+
     public PostSummaryDto toPostSummaryDto(Post post) {
         return new PostSummaryDto(post.getId(), post.getTitle(), post.getCreatedAt());
     }
@@ -44,79 +99,333 @@ public class PostService {
         User user = userRepository.findById(dto.getAuthorId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        boolean scheduled = dto.getPublishAt() != null && dto.getPublishAt().isAfter(LocalDateTime.now());
         Post post = Post.builder()
                 .title(dto.getTitle())
-                .content(dto.getContent())
+                .body(renderBody(dto.getContent()))
                 .author(user)
+                .published(!scheduled)
+                .publishAt(scheduled ? dto.getPublishAt() : null)
+                .tags(normalizeTags(dto.getTags()))
                 .likes(new ArrayList<>())
                 .comments(new ArrayList<>())
                 .build();
 
         postRepository.save(post);
+        postRevisionService.recordCreated(post);
+        if (scheduled) {
+            // feeds and search pick it up when it is published
+            scheduledPublishService.schedule(post.getId(), post.getPublishAt());
+        } else {
+            timelineService.onPostCreated(user.getId(), post.getId());
+            searchService.index(post.getId(), post.getTitle(), post.getContent());
+            tagIndexService.index(post.getId(), Set.of(), post.getTags());
+            relatedPostService.index(post.getId(), null, post.getBody().getSignature());
+            feedService.onPostPublished(post);
+        }
         logger.info("Post created with id {}", post.getId());
         return toPostResponseDto(post);
     }
     // Update Post
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public PostResponseDto updatePost(Long postId,PostCreateDto dto){
-        Post post = postRepository.findById(postId)
+        Post post = postRepository.findWithContentById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+        String previousTitle = post.getTitle();
+        String previousContent = post.getContent();
+        byte[] previousSignature = post.getBody().getSignature();
+        Set<String> previousTags = Set.copyOf(post.getTags());
 
         if (dto.getTitle() != null && !dto.getTitle().isBlank()) {
             post.setTitle(dto.getTitle());
         }
-        if (dto.getContent() != null && !dto.getContent().isBlank()) {
-            post.setContent(dto.getContent());
+        // rendering and hashing only when the text really changed
+        String content = dto.getContent();
+        if (content != null && !content.isBlank() && !content.equals(previousContent)) {
+            post.setContent(content, MarkdownRenderer.render(content), MinHash.signature(content));
+        }
+        if (dto.getTags() != null) {
+            Set<String> tags = normalizeTags(dto.getTags());
+            if (!tags.equals(post.getTags())) {
+                post.getTags().clear();
+                post.getTags().addAll(tags);
+            }
         }
 
         postRepository.save(post);
+        if (!previousTitle.equals(post.getTitle()) || !previousContent.equals(post.getContent())) {
+            postRevisionService.recordUpdated(post, previousTitle, previousContent);
+        }
+        if (post.isPublished()) {
+            searchService.index(post.getId(), post.getTitle(), post.getContent());
+            tagIndexService.index(post.getId(), previousTags, post.getTags());
+            relatedPostService.index(post.getId(), previousSignature, post.getBody().getSignature());
+            feedService.onPostPublished(post);
+        }
         logger.info("Post updated with id {}", post.getId());
         return toPostResponseDto(post);
     }
     //Delete Post
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public void deletePost(Long postId){
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
         logger.info("Post deleted with id {}", post.getId());
+        shortLinkService.onPostDeleted(postId);
+        Set<String> previousTags = Set.copyOf(post.getTags());
         postRepository.delete(post);
+        searchService.remove(postId);
+        tagIndexService.remove(postId, previousTags);
+        relatedPostService.remove(postId, post.getBody().getSignature());
+        feedService.onPostDeleted(postId, post.getAuthor().getId());
+        trendingService.remove(postId);
     }
 
     // View Post
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "#postId")
+    @Transactional(readOnly = true)
     public PostResponseDto getPostById(Long postId){
-        Post post = postRepository.findById(postId)
+        Post post = postRepository.findPublishedWithContentById(postId)
                 .orElseThrow(()->new ResourceNotFoundException("No Post Found"));
         logger.info("Post found with id {}", post.getId());
         return toPostResponseDto(post);
     }
+    // many posts in one call: cached ones first, the rest with a single IN query
+    @Transactional(readOnly = true)
+    public PostBatchDto getPostsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > batchMaxIds) {
+            throw new BadRequestException("At most " + batchMaxIds + " post ids per request");
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.POSTS);
+        Map<Long, PostResponseDto> found = new HashMap<>(requested.size() * 2);
+        List<Long> toLoad = new ArrayList<>();
+        for (Long id : requested) {
+            PostResponseDto cached = cache == null ? null : cache.get(id, PostResponseDto.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                toLoad.add(id);
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            for (Post post : postRepository.findAllWithContentByIdIn(toLoad)) {
+                PostResponseDto dto = toPostResponseDto(post);
+                found.put(post.getId(), dto);
+                if (cache != null) {
+                    cache.put(post.getId(), dto);
+                }
+            }
+        }
+
+        List<PostResponseDto> posts = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            PostResponseDto dto = found.get(id);
+            if (dto != null) {
+                posts.add(dto);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        logger.info("Batch fetched {} posts ({} from cache), {} missing", posts.size(),
+                requested.size() - toLoad.size(), missingIds.size());
+        return new PostBatchDto(posts, missingIds);
+    }
+
+    // html is rendered on write, rows saved before rendering existed are rendered on the fly
+    @Transactional(readOnly = true)
+    public String getPostHtml(Long postId) {
+        PostContent body = postRepository.findBodyByPostId(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("No Post Found"));
+        return body.getHtml() != null ? body.getHtml() : MarkdownRenderer.render(body.getText());
+    }
+
+    // strong ETag from a single indexed lookup, no entity or body loaded
+    @Transactional(readOnly = true)
+    public String getPostETag(Long postId) {
+        PostVersionView version = postRepository.findVersionById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("No Post Found"));
+        return "\"p" + postId + "-" + version.getVersion() + "-" + version.getLikeCount()
+                + "-" + version.getCommentCount() + "\"";
+    }
+    @Transactional(readOnly = true)
     public Page<PostSummaryDto> getAllPosts(Pageable pageable) {
         logger.info("Getting all posts with page {}", pageable.getPageNumber());
-        return postRepository.findAll(pageable)
-                .map(this::toPostSummaryDto);
+        return postRepository.findAllSummaries(pageable);
+    }
+
+    // tag filtered listing, newest (highest id) first; the bitmap index picks the page ids
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDto> getPostsByTags(Collection<String> allOf, Collection<String> anyOf,
+                                               Collection<String> noneOf, Pageable pageable) {
+        TagIndex.Match match = tagIndexService.query(nullToEmpty(allOf), nullToEmpty(anyOf), nullToEmpty(noneOf),
+                pageable.getOffset(), pageable.getPageSize());
+        List<Long> ids = Arrays.stream(match.ids()).mapToObj(Long::valueOf).toList();
+        logger.info("Getting posts by tags with page {}, {} matches", pageable.getPageNumber(), match.total());
+        return new PageImpl<>(getPostSummaries(ids), pageable, match.total());
+    }
+
+    // keyset (cursor) feed, cost per page does not grow with depth
+    @Transactional(readOnly = true)
+    public PostFeedPageDto getFeed(String cursor, int size) {
+        Pageable limit = feedLimit(size);
+        List<PostSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postRepository.findFeed(limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            rows = postRepository.findFeedBefore(after.getCreatedAt(), after.getId(), limit);
+        }
+        logger.info("Getting feed page of size {}", size);
+        return toFeedPage(rows, limit.getPageSize() - 1);
+    }
+
+    // full-text search, best match first
+    @Transactional(readOnly = true)
+    public List<PostSummaryDto> searchPosts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query cannot be empty");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        logger.info("Searching posts for '{}'", query);
+        return getPostSummaries(searchService.search(query, pageSize));
+    }
+
+    // posts with the most recent like and comment activity
+    @Transactional(readOnly = true)
+    public List<PostSummaryDto> getTrendingPosts(int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        logger.info("Getting {} trending posts", pageSize);
+        return getPostSummaries(trendingService.topPostIds(pageSize));
+    }
+
+    // posts with the most similar content, best match first
+    @Transactional(readOnly = true)
+    public List<PostSummaryDto> getRelatedPosts(Long postId, int limit) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("No Post Found");
+        }
+        int size = Math.max(1, Math.min(limit, RelatedPostService.MAX_RELATED));
+        List<Long> ids = relatedPostService.relatedIds(postId);
+        logger.info("Getting related posts of post {}", postId);
+        return getPostSummaries(ids.subList(0, Math.min(size, ids.size())));
     }
 
     // Share Post
     public String sharePost(Long postId){
-        Post post = postRepository.findById(postId)
-                .orElseThrow(()->new ResourceNotFoundException("No Post Found"));
-        String url = baseUrl+"/posts/"+postId;
-        logger.info("Post share with id {}", post.getId());
+        String url = shortLinkService.getOrCreateLink(postId);
+        logger.info("Post share with id {}", postId);
         return url;
     }
     // view post of users by id
+    @Transactional(readOnly = true)
     public Page<PostSummaryDto> getUserPosts(Long userId, Pageable pageable) {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User not found");
         }
         logger.info("Getting user posts of user {} with page {}", userId, pageable.getPageNumber());
-        return postRepository.findByAuthor_Id(userId,pageable).map(this::toPostSummaryDto);
+        return postRepository.findSummariesByAuthorId(userId,pageable);
+    }
+    // every post of a user, newest first
+    @Transactional(readOnly = true)
+    public List<PostSummaryDto> getAllUserPostSummaries(Long userId) {
+        return postRepository.findSummariesByAuthorId(userId);
+    }
+
+    // keyset (cursor) feed of a user's posts
+    @Transactional(readOnly = true)
+    public PostFeedPageDto getUserFeed(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        Pageable limit = feedLimit(size);
+        List<PostSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postRepository.findUserFeed(userId, limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            rows = postRepository.findUserFeedBefore(userId, after.getCreatedAt(), after.getId(), limit);
+        }
+        logger.info("Getting feed page of user {} of size {}", userId, size);
+        return toFeedPage(rows, limit.getPageSize() - 1);
+    }
+
+    // home timeline of a reader, built from the posts of the users they follow
+    @Transactional(readOnly = true)
+    public PostFeedPageDto getTimeline(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                beforeId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor", e);
+            }
+        }
+        List<Long> ids = timelineService.page(userId, beforeId, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        String nextCursor = hasNext ? String.valueOf(pageIds.get(pageIds.size() - 1)) : null;
+        logger.info("Getting timeline of user {} of size {}", userId, size);
+        return new PostFeedPageDto(getPostSummaries(pageIds), nextCursor, hasNext);
     }
 
     // utility methods
+    // loads summaries for the given ids keeping their order, unknown ids are skipped
+    private List<PostSummaryDto> getPostSummaries(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSummaryDto> posts = new HashMap<>();
+        for (PostSummaryDto post : postRepository.findSummariesByIdIn(postIds)) {
+            posts.put(post.getId(), post);
+        }
+        return postIds.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static Set<String> normalizeTags(Collection<String> tags) {
+        if (tags == null) {
+            return new HashSet<>();
+        }
+        return tags.stream()
+                .map(TagIndex::normalize)
+                .filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static Collection<String> nullToEmpty(Collection<String> values) {
+        return values == null ? List.of() : values;
+    }
+
+    // fetches one row more than requested so hasNext is known without a count query
+    private Pageable feedLimit(int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        return PageRequest.ofSize(pageSize + 1);
+    }
+
+    private PostFeedPageDto toFeedPage(List<PostSummaryDto> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<PostSummaryDto> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummaryDto last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new PostFeedPageDto(page, nextCursor, hasNext);
+    }
+
+
     private PostResponseDto toPostResponseDto(Post post) {
         if(post == null) throw new ResourceNotFoundException("Post is empty");
 
         PostResponseDto dto = new PostResponseDto();
-        List<Comment> comments = post.getComments();
-        List<Like> likes = post.getLikes();
 
         dto.setId(post.getId());
         dto.setTitle(post.getTitle());
@@ -125,8 +434,12 @@ public class PostService {
         dto.setDisplayName(post.getAuthor().getDisplayName());
         dto.setCreatedAt(post.getCreatedAt());
         dto.setUpdatedAt(post.getUpdatedAt());
-        dto.setCommentCount(comments.size());
-        dto.setLikeCount(likes.size());
+        dto.setCommentCount(post.getCommentCount());
+        dto.setLikeCount(post.getLikeCount());
+        dto.setViewCount(post.getViewCount());
+        dto.setPublished(post.isPublished());
+        dto.setPublishAt(post.getPublishAt());
+        dto.setTags(post.getTags().stream().sorted().toList());
         return dto;
     }
 }
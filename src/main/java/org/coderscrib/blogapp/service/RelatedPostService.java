@@ -0,0 +1,141 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.config.CacheConfig;
+import org.coderscrib.blogapp.repository.PostBodyTextView;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.PostSignatureView;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.LshIndex;
+import org.coderscrib.blogapp.util.MinHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Related posts by content similarity.
+ * MinHash signatures are stored with the post body; an in-memory LSH index over the
+ * published ones narrows a lookup to a few candidates, whose signatures are then loaded
+ * and compared. The index is filled on startup and kept current by PostService and
+ * ScheduledPublishService, results are cached per post.
+ */
+@Service
+public class RelatedPostService {
+    public static final int MAX_RELATED = 20;
+    private static final int CANDIDATE_LIMIT = 200;
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LshIndex index = new LshIndex();
+    private static final Logger logger = LoggerFactory.getLogger(RelatedPostService.class);
+
+    @Value("${app.related.min-similarity:0.1}")
+    private double minSimilarity;
+
+    @Value("${app.related.reindex-on-startup:true}")
+    private boolean reindexOnStartup;
+
+    public RelatedPostService(PostRepository postRepository, JdbcTemplate jdbcTemplate) {
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // previous is the signature the post was indexed with, null if it was not; applied after commit
+    @CacheEvict(cacheNames = CacheConfig.RELATED_POSTS, key = "#postId")
+    public void index(Long postId, byte[] previous, byte[] signature) {
+        AfterCommit.run(() -> {
+            if (previous != null) {
+                index.remove(postId, previous);
+            }
+            if (signature != null) {
+                index.put(postId, signature);
+            }
+        });
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.RELATED_POSTS, key = "#postId")
+    public void remove(Long postId, byte[] signature) {
+        if (signature != null) {
+            AfterCommit.run(() -> index.remove(postId, signature));
+        }
+    }
+
+    // ids of the most similar published posts, best first
+    @Cacheable(cacheNames = CacheConfig.RELATED_POSTS, key = "#postId")
+    @Transactional(readOnly = true)
+    public List<Long> relatedIds(Long postId) {
+        List<PostSignatureView> own = postRepository.findSignaturesByIdIn(List.of(postId));
+        if (own.isEmpty()) {
+            return List.of();
+        }
+        byte[] signature = own.get(0).getSignature();
+        List<Long> candidates = index.candidates(postId, signature, CANDIDATE_LIMIT);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        record Scored(long id, double similarity) {
+        }
+        return postRepository.findSignaturesByIdIn(candidates).stream()
+                .map(candidate -> new Scored(candidate.getId(), MinHash.similarity(signature, candidate.getSignature())))
+                .filter(scored -> scored.similarity() >= minSimilarity)
+                .sorted(Comparator.comparingDouble(Scored::similarity).reversed()
+                        .thenComparing(Comparator.comparingLong(Scored::id).reversed()))
+                .limit(MAX_RELATED)
+                .map(Scored::id)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reindexAll() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        logger.info("Building related posts index from posts");
+        long started = System.currentTimeMillis();
+        try (Stream<PostSignatureView> posts = postRepository.streamPublishedSignatures()) {
+            posts.forEach(post -> index.put(post.getId(), post.getSignature()));
+        }
+        // posts stored before signatures existed are signed once and written back
+        List<Object[]> backfill = new ArrayList<>();
+        int backfilled = 0;
+        try (Stream<PostBodyTextView> bodies = postRepository.streamPublishedWithoutSignature()) {
+            for (PostBodyTextView body : (Iterable<PostBodyTextView>) bodies::iterator) {
+                byte[] signature = MinHash.signature(body.getText());
+                if (signature == null) {
+                    continue;
+                }
+                index.put(body.getPostId(), signature);
+                backfill.add(new Object[]{signature, body.getContentId()});
+                if (backfill.size() == BACKFILL_BATCH_SIZE) {
+                    backfilled += writeSignatures(backfill);
+                }
+            }
+        }
+        backfilled += writeSignatures(backfill);
+        logger.info("Related posts index built with {} posts ({} signatures backfilled) in {} ms", index.size(),
+                backfilled, System.currentTimeMillis() - started);
+    }
+
+    private int writeSignatures(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("UPDATE post_content SET minhash = ? WHERE id = ?", batch);
+        int written = batch.size();
+        batch.clear();
+        return written;
+    }
+}
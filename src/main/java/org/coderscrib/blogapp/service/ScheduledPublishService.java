@@ -0,0 +1,125 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.config.CacheConfig;
+import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.ScheduledPostView;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publishes scheduled posts when their publish time comes. Pending posts sit in an in-memory
+ * {@link TimingWheel}; the wheel is advanced every tick without touching the database, and
+ * only posts that are due are published, in batches of one UPDATE each. The wheel is rebuilt
+ * from the unpublished rows on startup, so posts that fell due while the app was down are
+ * published on the first tick.
+ */
+@Service
+public class ScheduledPublishService {
+    private final PostRepository postRepository;
+    private final TimelineService timelineService;
+    private final SearchService searchService;
+    private final TagIndexService tagIndexService;
+    private final RelatedPostService relatedPostService;
+    private final FeedService feedService;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TimingWheel wheel;
+    private final long tickMillis;
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledPublishService.class);
+
+    @Value("${app.posts.publish-batch-size:500}")
+    private int batchSize;
+
+    public ScheduledPublishService(PostRepository postRepository, TimelineService timelineService,
+                                   SearchService searchService, TagIndexService tagIndexService, RelatedPostService relatedPostService,
+                                   FeedService feedService,
+                                   CacheManager cacheManager, PlatformTransactionManager transactionManager,
+                                   @Value("${app.posts.publish-tick-ms:1000}") long tickMillis,
+                                   @Value("${app.posts.publish-wheel-size:4096}") int wheelSize) {
+        this.postRepository = postRepository;
+        this.timelineService = timelineService;
+        this.searchService = searchService;
+        this.tagIndexService = tagIndexService;
+        this.relatedPostService = relatedPostService;
+        this.feedService = feedService;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPending() {
+        List<ScheduledPostView> pending = postRepository.findScheduled();
+        pending.forEach(post -> wheel.schedule(post.getId(), toMillis(post.getPublishAt())));
+        logger.info("Loaded {} scheduled posts", pending.size());
+    }
+
+    // joins the wheel once the creating transaction commits, so it never fires for a row that is not there
+    public void schedule(Long postId, LocalDateTime publishAt) {
+        long deadline = toMillis(publishAt);
+        AfterCommit.run(() -> wheel.schedule(postId, deadline));
+        logger.info("Post {} scheduled for {}", postId, publishAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.posts.publish-tick-ms:1000}")
+    public void publishDue() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            publish(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+    }
+
+    // the UPDATE and the read of what it published share one transaction; index and cache updates run at its commit
+    private void publish(List<Long> ids) {
+        int published;
+        try {
+            published = transactionTemplate.execute(status -> {
+                int count = postRepository.markPublished(ids);
+                // same side effects as an immediate createPost
+                for (Post post : postRepository.findAllWithContentByIdIn(ids)) {
+                    timelineService.onPostCreated(post.getAuthor().getId(), post.getId());
+                    searchService.index(post.getId(), post.getTitle(), post.getContent());
+                    tagIndexService.index(post.getId(), Set.of(), post.getTags());
+                    relatedPostService.index(post.getId(), null, post.getBody().getSignature());
+                    feedService.onPostPublished(post);
+                    Long postId = post.getId();
+                    AfterCommit.run(() -> {
+                        Cache posts = cacheManager.getCache(CacheConfig.POSTS);
+                        if (posts != null) {
+                            posts.evict(postId);
+                        }
+                    });
+                }
+                return count;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Publishing {} scheduled posts failed, retrying next tick", ids.size(), e);
+            long retryAt = System.currentTimeMillis() + tickMillis;
+            ids.forEach(id -> wheel.schedule(id, retryAt));
+            return;
+        }
+        logger.info("Published {} scheduled posts", published);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
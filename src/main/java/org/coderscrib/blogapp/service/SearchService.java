@@ -0,0 +1,93 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.PostTextView;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.SearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over post titles and contents.
+ * The index lives in memory; it is filled by streaming all posts once the application is
+ * ready and kept current by PostService on create, update and delete, once their transaction
+ * commits. Posts written while the startup rebuild runs are skipped by it, so a row it streamed
+ * earlier never overwrites a newer version.
+ */
+@Service
+public class SearchService {
+    private final PostRepository postRepository;
+    private final SearchIndex index = new SearchIndex();
+    private final Set<Long> writtenDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final Object rebuildLock = new Object();
+    private volatile boolean rebuilding;
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    @Value("${app.search.reindex-on-startup:true}")
+    private boolean reindexOnStartup;
+
+    public SearchService(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    public void index(Long postId, String title, String content) {
+        AfterCommit.run(() -> write(postId, () -> index.put(postId, title, content)));
+    }
+
+    public void remove(Long postId) {
+        AfterCommit.run(() -> write(postId, () -> index.remove(postId)));
+    }
+
+    private void write(Long postId, Runnable change) {
+        if (!rebuilding) {
+            change.run();
+            return;
+        }
+        synchronized (rebuildLock) {
+            if (rebuilding) {
+                writtenDuringRebuild.add(postId);
+            }
+            change.run();
+        }
+    }
+
+    public List<Long> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reindexAll() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        logger.info("Building search index from posts");
+        long started = System.currentTimeMillis();
+        rebuilding = true;
+        try (Stream<PostTextView> posts = postRepository.streamAllText()) {
+            posts.forEach(post -> {
+                synchronized (rebuildLock) {
+                    if (!writtenDuringRebuild.contains(post.getId())) {
+                        index.put(post.getId(), post.getTitle(), post.getContent());
+                    }
+                }
+            });
+        } finally {
+            synchronized (rebuildLock) {
+                rebuilding = false;
+                writtenDuringRebuild.clear();
+            }
+        }
+        logger.info("Search index built with {} posts in {} ms", index.size(), System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,137 @@
+package org.coderscrib.blogapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import org.coderscrib.blogapp.entity.ShortLink;
+import org.coderscrib.blogapp.exception.ResourceNotFoundException;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.ShortLinkRepository;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.CounterBuffer;
+import org.coderscrib.blogapp.util.ShortCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One short link per post. Codes are the base62 form of the link id, so resolving a code
+ * is a decode plus a lookup in a bounded in-memory map; only the first hit on a link that
+ * is not cached reads the database. Unknown codes are cached as misses for a short while,
+ * so probing random codes does not reach the database either. Clicks are buffered and
+ * written out in batches.
+ */
+@Service
+public class ShortLinkService {
+    private final ShortLinkRepository shortLinkRepository;
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    // empty for codes with no link, those entries expire after negative-ttl
+    private final Cache<Long, Optional<Long>> postIdsByLinkId;
+    private final CounterBuffer clicks = new CounterBuffer();
+    private static final Logger logger = LoggerFactory.getLogger(ShortLinkService.class);
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    public ShortLinkService(ShortLinkRepository shortLinkRepository, PostRepository postRepository,
+                            JdbcTemplate jdbcTemplate, @Value("${app.shortlinks.cache-size:100000}") long cacheSize,
+                            @Value("${app.shortlinks.negative-ttl:60s}") Duration negativeTtl) {
+        this.shortLinkRepository = shortLinkRepository;
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.postIdsByLinkId = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<Long, Optional<Long>>() {
+                    @Override
+                    public long expireAfterCreate(Long linkId, Optional<Long> postId, long currentTime) {
+                        return postId.isPresent() ? Long.MAX_VALUE : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long linkId, Optional<Long> postId, long currentTime, long currentDuration) {
+                        return expireAfterCreate(linkId, postId, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long linkId, Optional<Long> postId, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // outside any caller transaction, so a lost insert race can be recovered from
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getOrCreateLink(Long postId) {
+        long linkId = shortLinkRepository.findIdByPostId(postId).orElseGet(() -> createLink(postId));
+        postIdsByLinkId.put(linkId, Optional.of(postId));
+        return baseUrl + "/s/" + ShortCode.encode(linkId);
+    }
+
+    // hot path: no database access once the link is cached
+    public String resolve(String code) {
+        long linkId = ShortCode.decode(code);
+        if (linkId < 0) {
+            throw new ResourceNotFoundException("Link not found");
+        }
+        Long postId = postIdsByLinkId.get(linkId, shortLinkRepository::findPostIdById)
+                .orElseThrow(() -> new ResourceNotFoundException("Link not found"));
+        clicks.increment(linkId);
+        return baseUrl + "/posts/" + postId;
+    }
+
+    // the link row goes with the post (ON DELETE CASCADE); call inside the deleting transaction
+    public void onPostDeleted(Long postId) {
+        shortLinkRepository.findIdByPostId(postId)
+                .ifPresent(linkId -> AfterCommit.run(() -> postIdsByLinkId.invalidate(linkId)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.shortlinks.click-flush-interval-ms:10000}")
+    public void flushClicks() {
+        List<Object[]> batch = clicks.drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate("UPDATE short_link SET click_count = click_count + ? WHERE id = ?", batch);
+        } catch (RuntimeException e) {
+            logger.warn("Click count flush failed for {} links, retrying next cycle", batch.size(), e);
+            clicks.restore(batch);
+            return;
+        }
+        logger.debug("Flushed click counts for {} links", batch.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushClicks();
+    }
+
+    private long createLink(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("No Post Found");
+        }
+        try {
+            ShortLink link = shortLinkRepository.saveAndFlush(ShortLink.builder()
+                    .post(postRepository.getReferenceById(postId))
+                    .build());
+            logger.info("Short link {} created for post {}", link.getId(), postId);
+            return link.getId();
+        } catch (DataIntegrityViolationException e) {
+            // another request created it first
+            return shortLinkRepository.findIdByPostId(postId).orElseThrow(() -> e);
+        }
+    }
+}
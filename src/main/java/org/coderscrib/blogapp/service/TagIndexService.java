@@ -0,0 +1,73 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.PostTagView;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.TagIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tag filtering over published posts.
+ * The bitmap index lives in memory; it is filled by streaming (post, tag) pairs once the
+ * application is ready and kept current by PostService and ScheduledPublishService once
+ * their writes commit.
+ */
+@Service
+public class TagIndexService {
+    private final PostRepository postRepository;
+    private final TagIndex index = new TagIndex();
+    private static final Logger logger = LoggerFactory.getLogger(TagIndexService.class);
+
+    @Value("${app.tags.reindex-on-startup:true}")
+    private boolean reindexOnStartup;
+
+    public TagIndexService(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    // previousTags are the ones the post was last indexed with, empty for a new post; applied after commit
+    public void index(Long postId, Collection<String> previousTags, Collection<String> tags) {
+        List<String> previous = List.copyOf(previousTags);
+        List<String> current = List.copyOf(tags);
+        AfterCommit.run(() -> index.put(postId, previous, current));
+    }
+
+    public void remove(Long postId, Collection<String> previousTags) {
+        List<String> previous = List.copyOf(previousTags);
+        AfterCommit.run(() -> index.remove(postId, previous));
+    }
+
+    public TagIndex.Match query(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf,
+                                long skip, int limit) {
+        return index.query(allOf, anyOf, noneOf, skip, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reindexAll() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        logger.info("Building tag index from posts");
+        long started = System.currentTimeMillis();
+        // untagged posts too, NOT-only filters subtract from every published post
+        try (Stream<Long> ids = postRepository.streamPublishedIds()) {
+            ids.forEach(id -> index.add(id, null));
+        }
+        try (Stream<PostTagView> tags = postRepository.streamPublishedTags()) {
+            tags.forEach(tag -> index.add(tag.getPostId(), tag.getTag()));
+        }
+        logger.info("Tag index built with {} posts and {} tags in {} ms", index.size(), index.tagCount(),
+                System.currentTimeMillis() - started);
+    }
+}
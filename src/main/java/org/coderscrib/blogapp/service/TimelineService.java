@@ -0,0 +1,213 @@
+package org.coderscrib.blogapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.coderscrib.blogapp.repository.FollowRepository;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.LongRingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-reader home timelines, maintained by fan-out on write.
+ * <p>
+ * Each materialized timeline is a ring of the newest post ids of the reader's followees,
+ * so a page is read from memory. New posts are pushed into the timelines of followers
+ * that are currently materialized; other readers build theirs with one query on first read.
+ * Authors with at least {@code app.timeline.celebrity-threshold} followers are never fanned
+ * out. Their posts are pulled at read time and merged in (hybrid push/pull).
+ * <p>
+ * A timeline that is being loaded is not in the cache yet, so posts fanned out meanwhile are
+ * parked for it and merged in once the load is published; the load's query may or may not
+ * have seen them.
+ */
+@Service
+public class TimelineService {
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final int capacity;
+    private final long celebrityThreshold;
+    private final Cache<Long, Timeline> timelines;
+    private final Map<Long, PendingPushes> loading = new ConcurrentHashMap<>();
+    private volatile Set<Long> celebrities = Set.of();
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    public TimelineService(FollowRepository followRepository, PostRepository postRepository,
+                           @Value("${app.timeline.capacity:500}") int capacity,
+                           @Value("${app.timeline.max-readers:100000}") long maxReaders,
+                           @Value("${app.timeline.celebrity-threshold:10000}") long celebrityThreshold) {
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.capacity = capacity;
+        this.celebrityThreshold = celebrityThreshold;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxReaders)
+                .build();
+    }
+
+    // push the new post to the author and, unless the author is a celebrity, to every materialized follower;
+    // followers are read in the caller's transaction, the rings are touched only once it commits
+    public void onPostCreated(Long authorId, Long postId) {
+        onPostsCreated(authorId, List.of(postId));
+    }
+
+    // same for several posts of one author, with a single follower query
+    public void onPostsCreated(Long authorId, List<Long> postIds) {
+        boolean celebrity = celebrities.contains(authorId);
+        if (celebrity) {
+            logger.debug("Skipping fan-out of {} posts for celebrity author {}", postIds.size(), authorId);
+        }
+        List<Long> followerIds = celebrity ? List.of() : followRepository.findFollowerIds(authorId);
+        List<Long> posts = List.copyOf(postIds);
+        AfterCommit.run(() -> {
+            push(authorId, posts);
+            int delivered = 0;
+            for (Long followerId : followerIds) {
+                if (push(followerId, posts)) {
+                    delivered++;
+                }
+            }
+            logger.debug("{} posts fanned out to {} materialized timelines", posts.size(), delivered);
+        });
+    }
+
+    // park first, then push: whichever of the two the loader has not passed yet delivers the posts
+    private boolean push(Long readerId, List<Long> postIds) {
+        PendingPushes pending = loading.get(readerId);
+        if (pending != null) {
+            pending.park(postIds);
+        }
+        Timeline timeline = timelines.getIfPresent(readerId);
+        if (timeline == null) {
+            return false;
+        }
+        postIds.forEach(timeline.pushed::add);
+        return true;
+    }
+
+    // after a follow change commits, so the rebuild reads the new follows
+    public void invalidate(Long readerId) {
+        AfterCommit.run(() -> timelines.invalidate(readerId));
+    }
+
+    /**
+     * Returns up to {@code limit} post ids of the reader's home timeline below {@code beforeId}, newest first.
+     *
+     * @param readerId the reader
+     * @param beforeId exclusive upper bound on post ids, null for the first page
+     * @param limit    maximum number of ids
+     * @return post ids in descending order
+     */
+    public List<Long> page(Long readerId, Long beforeId, int limit) {
+        Timeline timeline = timelines.get(readerId, this::load);
+        PendingPushes pending = timeline.pending;
+        if (pending != null) {
+            // close before unregistering, a push that misses the parking lot finds the published timeline
+            pending.mergeInto(timeline);
+            loading.remove(readerId, pending);
+            timeline.pending = null;
+        }
+        long bound = beforeId == null ? Long.MAX_VALUE : beforeId;
+
+        TreeSet<Long> ids = new TreeSet<>(Comparator.reverseOrder());
+        for (long id : timeline.pushed.largestBelow(bound, limit)) {
+            ids.add(id);
+        }
+        // the ring no longer holds everything: page past its oldest entry from the database
+        if (ids.size() < limit && !timeline.isComplete()) {
+            long deeper = Math.min(bound, timeline.pushed.min());
+            ids.addAll(postRepository.findIdsByAuthorsBefore(timeline.pushedAuthors, deeper,
+                    PageRequest.ofSize(limit - ids.size())));
+        }
+        if (!timeline.pulledAuthors.isEmpty()) {
+            ids.addAll(postRepository.findIdsByAuthorsBefore(timeline.pulledAuthors, bound, PageRequest.ofSize(limit)));
+        }
+        return ids.stream().limit(limit).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.timeline.celebrity-refresh-ms:300000}")
+    public void refreshCelebrities() {
+        Set<Long> refreshed = Set.copyOf(followRepository.findFolloweeIdsWithAtLeast(celebrityThreshold));
+        if (!refreshed.equals(celebrities)) {
+            // push/pull split of existing timelines is stale, rebuild them lazily
+            celebrities = refreshed;
+            timelines.invalidateAll();
+            logger.info("Celebrity authors refreshed: {} authors are served by pull", refreshed.size());
+        }
+    }
+
+    private Timeline load(Long readerId) {
+        PendingPushes pending = new PendingPushes();
+        loading.put(readerId, pending);
+        try {
+            Timeline timeline = build(readerId);
+            timeline.pending = pending;
+            return timeline;
+        } catch (RuntimeException e) {
+            loading.remove(readerId, pending);
+            throw e;
+        }
+    }
+
+    private Timeline build(Long readerId) {
+        List<Long> pushedAuthors = new ArrayList<>();
+        List<Long> pulledAuthors = new ArrayList<>();
+        pushedAuthors.add(readerId);
+        for (Long followeeId : followRepository.findFolloweeIds(readerId)) {
+            (celebrities.contains(followeeId) ? pulledAuthors : pushedAuthors).add(followeeId);
+        }
+
+        List<Long> recent = postRepository.findIdsByAuthorsBefore(pushedAuthors, Long.MAX_VALUE, PageRequest.ofSize(capacity));
+        LongRingBuffer pushed = new LongRingBuffer(capacity);
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            pushed.add(recent.get(i));
+        }
+        logger.debug("Timeline of user {} materialized with {} posts", readerId, recent.size());
+        return new Timeline(pushed, recent.size() < capacity, pushedAuthors, pulledAuthors);
+    }
+
+    // posts fanned out while a timeline was loading; closed once merged so later pushes go to the ring
+    private static final class PendingPushes {
+        private final List<Long> postIds = new ArrayList<>();
+        private boolean merged;
+
+        private synchronized void park(List<Long> ids) {
+            if (!merged) {
+                postIds.addAll(ids);
+            }
+        }
+
+        private synchronized void mergeInto(Timeline timeline) {
+            merged = true;
+            postIds.forEach(timeline.pushed::addIfAbsent);
+        }
+    }
+
+    private static final class Timeline {
+        private final LongRingBuffer pushed;
+        private final boolean loadedComplete;
+        private final List<Long> pushedAuthors;
+        private final List<Long> pulledAuthors;
+        // set until the first reader after the load merged the pushes parked meanwhile
+        private volatile PendingPushes pending;
+
+        private Timeline(LongRingBuffer pushed, boolean loadedComplete, List<Long> pushedAuthors, List<Long> pulledAuthors) {
+            this.pushed = pushed;
+            this.loadedComplete = loadedComplete;
+            this.pushedAuthors = pushedAuthors;
+            this.pulledAuthors = pulledAuthors;
+        }
+
+        private boolean isComplete() {
+            return loadedComplete && !pushed.hasOverwritten();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.coderscrib.blogapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.coderscrib.blogapp.util.AfterCommit;
+import org.coderscrib.blogapp.util.DecayingTopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trending posts ranked by time-decayed like and comment activity.
+ * Scores are updated incrementally from LikeService and CommentService and kept in memory;
+ * the ranking is snapshotted to a local file periodically and on shutdown, and reloaded on startup.
+ */
+@Service
+public class TrendingService {
+    private static final double LIKE_WEIGHT = 1.0;
+    private static final double COMMENT_WEIGHT = 3.0;
+
+    private final DecayingTopK ranking;
+    private final Path snapshotFile;
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    public TrendingService(@Value("${app.trending.capacity:10000}") int capacity,
+                           @Value("${app.trending.half-life:6h}") Duration halfLife,
+                           @Value("${app.trending.snapshot-file:trending.snapshot}") String snapshotFile) {
+        this.ranking = new DecayingTopK(capacity, halfLife.toMillis(), System.currentTimeMillis());
+        this.snapshotFile = Path.of(snapshotFile);
+    }
+
+    // callers record only rows they actually inserted; rolled back activity never scores
+    public void recordLike(Long postId) {
+        AfterCommit.run(() -> ranking.add(postId, LIKE_WEIGHT, System.currentTimeMillis()));
+    }
+
+    public void recordComment(Long postId) {
+        AfterCommit.run(() -> ranking.add(postId, COMMENT_WEIGHT, System.currentTimeMillis()));
+    }
+
+    public void remove(Long postId) {
+        ranking.remove(postId);
+    }
+
+    public List<Long> topPostIds(int limit) {
+        return ranking.top(limit);
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+            long takenAt = Long.parseLong(reader.readLine().trim());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                // the saved score was decayed to takenAt, adding it at takenAt decays it the rest of the way
+                ranking.add(Long.parseLong(parts[0]), Double.parseDouble(parts[1]), Math.min(takenAt, now));
+            }
+            logger.info("Trending ranking restored with {} posts from {}", ranking.size(), snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not restore trending ranking from {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.trending.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        long now = System.currentTimeMillis();
+        Map<Long, Double> scores = ranking.decayedScores(now);
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(Long.toString(now));
+                writer.newLine();
+                for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                    writer.write(score.getKey() + " " + score.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Trending ranking snapshot written with {} posts", scores.size());
+        } catch (IOException e) {
+            logger.warn("Could not write trending snapshot to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package org.coderscrib.blogapp.service;
 
-import jakarta.transaction.Transactional;
 import org.coderscrib.blogapp.dto.post.PostSummaryDto;
 import org.coderscrib.blogapp.dto.user.*;
 import org.coderscrib.blogapp.entity.User;
@@ -8,13 +7,14 @@ import org.coderscrib.blogapp.exception.ResourceNotFoundException;
 import org.coderscrib.blogapp.exception.BadRequestException;
 import org.coderscrib.blogapp.exception.ConflictException;
 import org.coderscrib.blogapp.repository.UserRepository;
+import org.coderscrib.blogapp.repository.UserVersionView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class UserService {
@@ -176,6 +176,16 @@ public class UserService {
         logger.info("User deleted successfully: {} (ID: {})", username, userId);
     }
 
+    // strong ETag covering the user row and the post summaries it embeds
+    @Transactional(readOnly = true)
+    public String getUserETag(Long userId) {
+        UserVersionView version = userRepository.findVersionById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return "\"u" + userId + "-" + version.getVersion() + "-" + version.getPostCount() + "-"
+                + version.getPostVersionSum() + "-" + version.getMaxPostId() + "\"";
+    }
+
+    @Transactional(readOnly = true)
     public UserResponseDto getUserById(Long userId) {
         logger.info("Retrieving user by ID: {}", userId);
         
@@ -189,6 +199,7 @@ public class UserService {
         return toUserResponseDto(user);
     }
     
+    @Transactional(readOnly = true)
     public UserResponseDto getUserByUsername(String username) {
         logger.info("Retrieving user by username: {}", username);
         
@@ -251,12 +262,9 @@ public class UserService {
         dto.setBio(savedUser.getBio());
         dto.setCreatedAt(savedUser.getCreatedAt());
         
-        List<PostSummaryDto> postDto = Optional.ofNullable(savedUser.getPosts())
-                .orElse(Collections.emptyList())
-                .stream()
-                .map(postService::toPostSummaryDto)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<PostSummaryDto> postDto = savedUser.getId() == null
+                ? Collections.emptyList()
+                : postService.getAllUserPostSummaries(savedUser.getId());
 
         dto.setPosts(postDto);
         logger.debug("User entity successfully converted to DTO: User ID {}", savedUser.getId());
@@ -0,0 +1,40 @@
+package org.coderscrib.blogapp.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects until the surrounding transaction commits, so they never
+ * reflect a write that is rolled back; without a transaction the action runs at once.
+ */
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // onRollback runs instead when the transaction does not commit
+    public static void run(Runnable onCommit, Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    (status == STATUS_COMMITTED ? onCommit : onRollback).run();
+                }
+            });
+        } else {
+            onCommit.run();
+        }
+    }
+}
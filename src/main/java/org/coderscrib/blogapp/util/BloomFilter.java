@@ -0,0 +1,81 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over long ids: {@link #mightContain} never misses an added id and wrongly
+ * reports an absent one with about the false-positive rate it was sized for, as long as no
+ * more than its capacity is added. Ids cannot be removed. Safe for concurrent use.
+ */
+public final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashes;
+    private final int capacity;
+    private final AtomicInteger added = new AtomicInteger();
+
+    private BloomFilter(long bitCount, int hashes, int capacity) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashes = hashes;
+        this.capacity = capacity;
+    }
+
+    // m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hashes
+    public static BloomFilter forCapacity(int capacity, double falsePositiveRate) {
+        int n = Math.max(1, capacity);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, hashes, n);
+    }
+
+    public void add(long id) {
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    public boolean mightContain(long id) {
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // past capacity the false-positive rate climbs, callers should rebuild bigger
+    public boolean isOverCapacity() {
+        return added.get() > capacity;
+    }
+
+    public long sizeInBytes() {
+        return words.length() * 8L;
+    }
+
+    private long index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    // murmur3 finalizer, consecutive ids must not land on neighbouring bits
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
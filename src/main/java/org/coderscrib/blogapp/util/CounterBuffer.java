@@ -0,0 +1,67 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-id counters that absorb hot increments in memory until they are drained.
+ * Each id gets its own {@link LongAdder}, which stripes concurrent increments across cells.
+ * Idle ids are removed on drain; an increment that lands on an adder just removed moves its
+ * delta to the current one, so nothing is lost short of a crash.
+ */
+public final class CounterBuffer {
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void increment(long id) {
+        add(id, 1);
+    }
+
+    public void add(long id, long delta) {
+        LongAdder adder = pending.computeIfAbsent(id, key -> new LongAdder());
+        adder.add(delta);
+        if (pending.get(id) != adder) {
+            // drained away meanwhile; sumThenReset hands every unit to exactly one caller
+            long orphaned = adder.sumThenReset();
+            if (orphaned != 0) {
+                add(id, orphaned);
+            }
+        }
+    }
+
+    // not yet drained for this id
+    public long pending(long id) {
+        LongAdder adder = pending.get(id);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Resets every counter and returns the non-zero ones as {delta, id} rows sorted by id,
+     * ready for a JDBC batch. Ids idle since the previous drain are dropped from the map.
+     */
+    public List<Object[]> drain() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                rows.add(new Object[]{delta, entry.getKey()});
+            } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                // increments between the reset and the removal
+                long late = entry.getValue().sumThenReset();
+                if (late != 0) {
+                    add(entry.getKey(), late);
+                }
+            }
+        }
+        // fixed lock order across instances flushing at the same time
+        rows.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+        return rows;
+    }
+
+    // puts drained rows back after a failed write
+    public void restore(List<Object[]> rows) {
+        rows.forEach(row -> add((Long) row[1], (Long) row[0]));
+    }
+}
@@ -0,0 +1,108 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.*;
+
+/**
+ * Bounded top-K of exponentially time-decayed scores.
+ * <p>
+ * Scores use forward decay: an event of weight w at time t adds {@code w * 2^((t - landmark) / halfLife)}.
+ * Relative order never changes as time passes, so nothing is rescored. Only the landmark is moved
+ * forward occasionally to keep the numbers finite. A tree set ordered by score gives the ranking
+ * and a hash index gives O(log n) updates. When more than {@code capacity} keys are tracked, the
+ * lowest one is dropped.
+ */
+public final class DecayingTopK {
+    // rebase well before 2^1023 overflows a double
+    private static final double MAX_EXPONENT = 512;
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final Map<Long, Entry> index = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(
+            Comparator.comparingDouble((Entry e) -> e.score).reversed().thenComparingLong(e -> e.key));
+    private long landmarkMillis;
+
+    public DecayingTopK(int capacity, long halfLifeMillis, long nowMillis) {
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.landmarkMillis = nowMillis;
+    }
+
+    public synchronized void add(long key, double weight, long nowMillis) {
+        double exponent = (nowMillis - landmarkMillis) / halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            rebase(nowMillis);
+            exponent = 0;
+        }
+        Entry entry = index.get(key);
+        double score = weight * Math.pow(2, exponent);
+        if (entry == null) {
+            entry = new Entry(key, score);
+            index.put(key, entry);
+        } else {
+            ranking.remove(entry);
+            entry.score += score;
+        }
+        ranking.add(entry);
+        if (index.size() > capacity) {
+            Entry lowest = ranking.pollLast();
+            index.remove(lowest.key);
+        }
+    }
+
+    public synchronized void remove(long key) {
+        Entry entry = index.remove(key);
+        if (entry != null) {
+            ranking.remove(entry);
+        }
+    }
+
+    public synchronized List<Long> top(int limit) {
+        List<Long> keys = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Entry entry : ranking) {
+            if (keys.size() == limit) {
+                break;
+            }
+            keys.add(entry.key);
+        }
+        return keys;
+    }
+
+    /**
+     * @return every tracked key with its score decayed to {@code nowMillis}, highest first
+     */
+    public synchronized LinkedHashMap<Long, Double> decayedScores(long nowMillis) {
+        double factor = Math.pow(2, -(nowMillis - landmarkMillis) / halfLifeMillis);
+        LinkedHashMap<Long, Double> scores = new LinkedHashMap<>();
+        for (Entry entry : ranking) {
+            scores.put(entry.key, entry.score * factor);
+        }
+        return scores;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    private void rebase(long nowMillis) {
+        double factor = Math.pow(2, -(nowMillis - landmarkMillis) / halfLifeMillis);
+        // re-insert rather than scale in place: tiny scores may underflow and reorder
+        List<Entry> entries = new ArrayList<>(ranking);
+        ranking.clear();
+        for (Entry entry : entries) {
+            entry.score *= factor;
+            ranking.add(entry);
+        }
+        landmarkMillis = nowMillis;
+    }
+
+    private static final class Entry {
+        private final long key;
+        private double score;
+
+        private Entry(long key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.coderscrib.blogapp.util;
+
+import org.coderscrib.blogapp.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the post feeds.
+ * A cursor points at the last row of a page as its (createdAt, id) pair; the next page
+ * seeks strictly past it instead of skipping rows with an OFFSET.
+ */
+public final class FeedCursor {
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public FeedCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     *
+     * @return the opaque token handed out to clients
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the token sent back by the client
+     * @return the decoded cursor
+     * @throws BadRequestException if the token is malformed
+     */
+    public static FeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.parseLong(raw.substring(separator + 1));
+            return new FeedCursor(createdAt, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.coderscrib.blogapp.util;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Serializes RSS 2.0, Atom and sitemap documents to UTF-8 bytes with StAX, which takes care
+ * of escaping. Times are local date-times of this server and written with its zone offset.
+ */
+public final class FeedWriter {
+    // sitemap protocol limit of URLs per file
+    public static final int SITEMAP_MAX_URLS = 50_000;
+    private static final int SUMMARY_LENGTH = 280;
+    private static final String DUBLIN_CORE = "http://purl.org/dc/elements/1.1/";
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    public record Item(long id, String link, String title, String author, LocalDateTime published,
+                       LocalDateTime updated, String summary) {
+    }
+
+    public record Url(String location, LocalDateTime lastModified) {
+    }
+
+    private FeedWriter() {
+    }
+
+    public static byte[] rss(String title, String link, String description, List<Item> items) {
+        return write(xml -> {
+            xml.writeStartElement("rss");
+            xml.writeAttribute("version", "2.0");
+            // rss author wants an email address, dc:creator takes a name
+            xml.writeNamespace("dc", DUBLIN_CORE);
+            xml.writeStartElement("channel");
+            element(xml, "title", title);
+            element(xml, "link", link);
+            element(xml, "description", description);
+            if (!items.isEmpty()) {
+                element(xml, "lastBuildDate", rfc1123(lastModified(items)));
+            }
+            for (Item item : items) {
+                xml.writeStartElement("item");
+                element(xml, "title", item.title());
+                element(xml, "link", item.link());
+                xml.writeStartElement("guid");
+                xml.writeAttribute("isPermaLink", "true");
+                xml.writeCharacters(item.link());
+                xml.writeEndElement();
+                xml.writeStartElement("dc", "creator", DUBLIN_CORE);
+                xml.writeCharacters(item.author() == null ? "" : item.author());
+                xml.writeEndElement();
+                element(xml, "pubDate", rfc1123(item.published()));
+                element(xml, "description", item.summary());
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+        });
+    }
+
+    public static byte[] atom(String title, String link, String selfLink, List<Item> items, LocalDateTime fallbackUpdated) {
+        return write(xml -> {
+            xml.writeStartElement("feed");
+            xml.writeDefaultNamespace("http://www.w3.org/2005/Atom");
+            element(xml, "title", title);
+            element(xml, "id", selfLink);
+            element(xml, "updated", iso(items.isEmpty() ? fallbackUpdated : lastModified(items)));
+            link(xml, "alternate", link);
+            link(xml, "self", selfLink);
+            for (Item item : items) {
+                xml.writeStartElement("entry");
+                element(xml, "title", item.title());
+                element(xml, "id", item.link());
+                link(xml, "alternate", item.link());
+                element(xml, "published", iso(item.published()));
+                element(xml, "updated", iso(updated(item)));
+                xml.writeStartElement("author");
+                element(xml, "name", item.author());
+                xml.writeEndElement();
+                element(xml, "summary", item.summary());
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    public static byte[] sitemap(List<Url> urls) {
+        return urlSet("urlset", "url", urls);
+    }
+
+    public static byte[] sitemapIndex(List<Url> sitemaps) {
+        return urlSet("sitemapindex", "sitemap", sitemaps);
+    }
+
+    // first characters of the markdown source, whitespace collapsed
+    public static String summary(String text) {
+        if (text == null) {
+            return "";
+        }
+        String collapsed = text.replaceAll("\\s+", " ").trim();
+        return collapsed.length() <= SUMMARY_LENGTH ? collapsed : collapsed.substring(0, SUMMARY_LENGTH) + "...";
+    }
+
+    public static LocalDateTime lastModified(List<Item> items) {
+        LocalDateTime last = null;
+        for (Item item : items) {
+            LocalDateTime updated = updated(item);
+            if (last == null || (updated != null && updated.isAfter(last))) {
+                last = updated;
+            }
+        }
+        return last;
+    }
+
+    private static byte[] urlSet(String root, String child, List<Url> urls) {
+        return write(xml -> {
+            xml.writeStartElement(root);
+            xml.writeDefaultNamespace("http://www.sitemaps.org/schemas/sitemap/0.9");
+            for (Url url : urls) {
+                xml.writeStartElement(child);
+                element(xml, "loc", url.location());
+                if (url.lastModified() != null) {
+                    element(xml, "lastmod", iso(url.lastModified()));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    private static LocalDateTime updated(Item item) {
+        return item.updated() != null ? item.updated() : item.published();
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text == null ? "" : text);
+        xml.writeEndElement();
+    }
+
+    private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+
+    private static String rfc1123(LocalDateTime time) {
+        return time == null ? "" : DateTimeFormatter.RFC_1123_DATE_TIME.format(time.atZone(ZoneId.systemDefault()));
+    }
+
+    private static String iso(LocalDateTime time) {
+        return time == null ? "" : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time.atZone(ZoneId.systemDefault()).withNano(0));
+    }
+
+    private interface Body {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+
+    private static byte[] write(Body body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        try {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            body.write(xml);
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write feed", e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,341 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compressed bitmap of non-negative ints, laid out like a Roaring bitmap: values are split
+ * by their high 16 bits into chunks, and each chunk is either a sorted array of low halves
+ * (up to 4096 values, 2 bytes each) or a 65536-bit bitmap (8 KB), whichever is smaller.
+ * Sparse sets stay small and dense ones cost at most one bit per value.
+ * <p>
+ * Binary operations work chunk by chunk on bitmap words and return a new bitmap; the
+ * inputs are left untouched. Not thread-safe.
+ */
+public final class IntBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1024;
+
+    private final TreeMap<Integer, Chunk> chunks = new TreeMap<>();
+
+    public void add(int value) {
+        checkValue(value);
+        int key = value >>> 16;
+        Chunk chunk = chunks.get(key);
+        chunks.put(key, chunk == null ? new ArrayChunk().add(value & 0xFFFF) : chunk.add(value & 0xFFFF));
+    }
+
+    public void remove(int value) {
+        checkValue(value);
+        int key = value >>> 16;
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            return;
+        }
+        Chunk updated = chunk.remove(value & 0xFFFF);
+        if (updated == null) {
+            chunks.remove(key);
+        } else {
+            chunks.put(key, updated);
+        }
+    }
+
+    public boolean contains(int value) {
+        Chunk chunk = value < 0 ? null : chunks.get(value >>> 16);
+        return chunk != null && chunk.contains(value & 0xFFFF);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (Chunk chunk : chunks.values()) {
+            cardinality += chunk.cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    public static IntBitmap and(IntBitmap a, IntBitmap b) {
+        IntBitmap result = new IntBitmap();
+        for (Map.Entry<Integer, Chunk> entry : a.chunks.entrySet()) {
+            Chunk other = b.chunks.get(entry.getKey());
+            if (other != null) {
+                long[] words = entry.getValue().words();
+                long[] otherWords = other.words();
+                for (int i = 0; i < WORDS; i++) {
+                    words[i] &= otherWords[i];
+                }
+                result.putWords(entry.getKey(), words);
+            }
+        }
+        return result;
+    }
+
+    public static IntBitmap or(IntBitmap a, IntBitmap b) {
+        IntBitmap result = new IntBitmap();
+        // chunks are mutated in place by add and remove, so ones taken over from an input are copied
+        for (Map.Entry<Integer, Chunk> entry : a.chunks.entrySet()) {
+            if (!b.chunks.containsKey(entry.getKey())) {
+                result.chunks.put(entry.getKey(), entry.getValue().copy());
+            }
+        }
+        for (Map.Entry<Integer, Chunk> entry : b.chunks.entrySet()) {
+            Chunk mine = a.chunks.get(entry.getKey());
+            if (mine == null) {
+                result.chunks.put(entry.getKey(), entry.getValue().copy());
+            } else {
+                long[] words = mine.words();
+                long[] otherWords = entry.getValue().words();
+                for (int i = 0; i < WORDS; i++) {
+                    words[i] |= otherWords[i];
+                }
+                result.putWords(entry.getKey(), words);
+            }
+        }
+        return result;
+    }
+
+    public static IntBitmap andNot(IntBitmap a, IntBitmap b) {
+        IntBitmap result = new IntBitmap();
+        for (Map.Entry<Integer, Chunk> entry : a.chunks.entrySet()) {
+            Chunk other = b.chunks.get(entry.getKey());
+            if (other == null) {
+                result.chunks.put(entry.getKey(), entry.getValue().copy());
+            } else {
+                long[] words = entry.getValue().words();
+                long[] otherWords = other.words();
+                for (int i = 0; i < WORDS; i++) {
+                    words[i] &= ~otherWords[i];
+                }
+                result.putWords(entry.getKey(), words);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Values in descending order, skipping the first skip of them; what an id-desc page needs.
+     */
+    public int[] pageDescending(long skip, int limit) {
+        int[] page = new int[limit];
+        int count = 0;
+        long toSkip = skip;
+        for (Map.Entry<Integer, Chunk> entry : chunks.descendingMap().entrySet()) {
+            Chunk chunk = entry.getValue();
+            if (toSkip >= chunk.cardinality()) {
+                toSkip -= chunk.cardinality();
+                continue;
+            }
+            count = chunk.collectDescending(entry.getKey() << 16, (int) toSkip, page, count);
+            toSkip = 0;
+            if (count == limit) {
+                break;
+            }
+        }
+        return count == limit ? page : Arrays.copyOf(page, count);
+    }
+
+    private void putWords(int key, long[] words) {
+        Chunk chunk = Chunk.fromWords(words);
+        if (chunk != null) {
+            chunks.put(key, chunk);
+        }
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+    }
+
+    private abstract static sealed class Chunk permits ArrayChunk, BitmapChunk {
+        abstract int cardinality();
+
+        abstract boolean contains(int low);
+
+        // may return a different representation, or null once empty
+        abstract Chunk add(int low);
+
+        abstract Chunk remove(int low);
+
+        // fresh bitmap words, safe to modify
+        abstract long[] words();
+
+        abstract Chunk copy();
+
+        // fills page from index count, high to low, and returns the new count
+        abstract int collectDescending(int base, int skip, int[] page, int count);
+
+        static Chunk fromWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_LIMIT) {
+                return new BitmapChunk(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[n++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayChunk(values, n);
+        }
+    }
+
+    private static final class ArrayChunk extends Chunk {
+        private char[] values;
+        private int size;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, 0, size, (char) low) >= 0;
+        }
+
+        @Override
+        Chunk add(int low) {
+            int index = Arrays.binarySearch(values, 0, size, (char) low);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                long[] words = words();
+                words[low >>> 6] |= 1L << low;
+                return new BitmapChunk(words, size + 1);
+            }
+            int insert = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size * 2));
+            }
+            System.arraycopy(values, insert, values, insert + 1, size - insert);
+            values[insert] = (char) low;
+            size++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(int low) {
+            int index = Arrays.binarySearch(values, 0, size, (char) low);
+            if (index < 0) {
+                return this;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return size == 0 ? null : this;
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, size), size);
+        }
+
+        @Override
+        int collectDescending(int base, int skip, int[] page, int count) {
+            for (int i = size - 1 - skip; i >= 0 && count < page.length; i--) {
+                page[count++] = base | values[i];
+            }
+            return count;
+        }
+    }
+
+    private static final class BitmapChunk extends Chunk {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapChunk(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Chunk add(int low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+            if (before != words[low >>> 6]) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(int low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before & ~(1L << low);
+            if (before != words[low >>> 6]) {
+                cardinality--;
+            }
+            return cardinality <= ARRAY_LIMIT ? fromWords(words) : this;
+        }
+
+        @Override
+        long[] words() {
+            return words.clone();
+        }
+
+        @Override
+        Chunk copy() {
+            return new BitmapChunk(words.clone(), cardinality);
+        }
+
+        @Override
+        int collectDescending(int base, int skip, int[] page, int count) {
+            int toSkip = skip;
+            for (int i = WORDS - 1; i >= 0 && count < page.length; i--) {
+                long word = words[i];
+                while (word != 0 && count < page.length) {
+                    int bit = 63 - Long.numberOfLeadingZeros(word);
+                    word &= ~(1L << bit);
+                    if (toSkip > 0) {
+                        toSkip--;
+                    } else {
+                        page[count++] = base | (i * 64 + bit);
+                    }
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring of primitive longs. Once full, every add overwrites the oldest value.
+ * All methods are synchronized; the ring is small, so contention is per instance only.
+ */
+public final class LongRingBuffer {
+    private final long[] values;
+    private int next;
+    private int size;
+    private boolean overwritten;
+
+    public LongRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.values = new long[capacity];
+    }
+
+    public synchronized void add(long value) {
+        if (size == values.length) {
+            overwritten = true;
+        } else {
+            size++;
+        }
+        values[next] = value;
+        next = (next + 1) % values.length;
+    }
+
+    // for late merges that may repeat what a load already read
+    public synchronized void addIfAbsent(long value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return;
+            }
+        }
+        add(value);
+    }
+
+    /**
+     * Returns up to {@code limit} values strictly below {@code bound}, largest first.
+     *
+     * @param bound exclusive upper bound
+     * @param limit maximum number of values to return
+     * @return the matching values in descending order
+     */
+    public synchronized long[] largestBelow(long bound, int limit) {
+        long[] matches = new long[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (values[i] < bound) {
+                matches[count++] = values[i];
+            }
+        }
+        Arrays.sort(matches, 0, count);
+        int resultSize = Math.min(count, limit);
+        long[] result = new long[resultSize];
+        for (int i = 0; i < resultSize; i++) {
+            result[i] = matches[count - 1 - i];
+        }
+        return result;
+    }
+
+    /**
+     * @return the smallest value held, or {@link Long#MAX_VALUE} when empty
+     */
+    public synchronized long min() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    /**
+     * @return true once at least one value has been pushed out by a newer one
+     */
+    public synchronized boolean hasOverwritten() {
+        return overwritten;
+    }
+}
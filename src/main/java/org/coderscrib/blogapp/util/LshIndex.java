@@ -0,0 +1,165 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locality-sensitive hashing over {@link MinHash} signatures.
+ * <p>
+ * A signature is cut into {@link #BANDS} bands of {@link #ROWS} values; posts whose band
+ * values are all equal land in the same bucket, so pairs with similarity s collide in at
+ * least one band with probability 1 - (1 - s^2)^16 (about 0.78 at s = 0.3, 0.99 at 0.5).
+ * Buckets live in one open-addressing table of longs, bucket key in the high half and post
+ * id in the low half, which keeps the cost at 16 longs (plus slack) per post.
+ * Post ids must fit in an int.
+ */
+public final class LshIndex {
+    public static final int BANDS = 16;
+    public static final int ROWS = MinHash.HASHES / BANDS;
+    // common words make big buckets, candidates beyond this many per bucket are not looked at
+    private static final int MAX_BUCKET_SCAN = 1000;
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+
+    private long[] table = new long[1024];
+    private int live;
+    private int used;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long postId, byte[] signature) {
+        int id = Math.toIntExact(postId);
+        int[] keys = bandKeys(signature);
+        lock.writeLock().lock();
+        try {
+            for (int key : keys) {
+                insert(entry(key, id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId, byte[] signature) {
+        int id = Math.toIntExact(postId);
+        int[] keys = bandKeys(signature);
+        lock.writeLock().lock();
+        try {
+            for (int key : keys) {
+                long entry = entry(key, id);
+                for (int slot = slot(key); table[slot] != EMPTY; slot = (slot + 1) & (table.length - 1)) {
+                    if (table[slot] == entry) {
+                        table[slot] = DELETED;
+                        live--;
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Posts sharing at least one bucket with the signature, most shared bands first.
+     */
+    public List<Long> candidates(long postId, byte[] signature, int limit) {
+        int[] keys = bandKeys(signature);
+        Map<Integer, Integer> hits = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int key : keys) {
+                int scanned = 0;
+                for (int slot = slot(key); table[slot] != EMPTY && scanned < MAX_BUCKET_SCAN;
+                     slot = (slot + 1) & (table.length - 1)) {
+                    long entry = table[slot];
+                    if (entry != DELETED && (int) (entry >>> 32) == key) {
+                        scanned++;
+                        int id = (int) entry;
+                        if (id != postId) {
+                            hits.merge(id, 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(hit -> (long) hit.getKey())
+                .toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live / BANDS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int[] bandKeys(byte[] signature) {
+        int[] values = MinHash.values(signature);
+        int[] keys = new int[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = band;
+            for (int row = 0; row < ROWS; row++) {
+                hash = MinHash.mix(hash * 31 + values[band * ROWS + row]);
+            }
+            keys[band] = (int) hash;
+        }
+        return keys;
+    }
+
+    private static long entry(int key, int id) {
+        return ((long) key << 32) | id;
+    }
+
+    private int slot(int key) {
+        return (int) MinHash.mix(key) & (table.length - 1);
+    }
+
+    private void insert(long entry) {
+        int key = (int) (entry >>> 32);
+        int free = -1;
+        int slot = slot(key);
+        for (; table[slot] != EMPTY; slot = (slot + 1) & (table.length - 1)) {
+            if (table[slot] == entry) {
+                return;
+            }
+            if (table[slot] == DELETED && free < 0) {
+                free = slot;
+            }
+        }
+        if (free >= 0) {
+            table[free] = entry;
+        } else {
+            table[slot] = entry;
+            used++;
+        }
+        live++;
+        if (used * 4L > table.length * 3L) {
+            rehash(live * 2L > table.length ? table.length * 2 : table.length);
+        }
+    }
+
+    // also drops tombstones, which otherwise only grow the probe chains
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        used = 0;
+        live = 0;
+        for (long entry : old) {
+            if (entry != EMPTY && entry != DELETED) {
+                insert(entry);
+            }
+        }
+    }
+}
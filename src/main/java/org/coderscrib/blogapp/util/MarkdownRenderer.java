@@ -0,0 +1,231 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the markdown subset posts use into HTML that is safe to embed as is.
+ * Safety comes from construction rather than a filter pass: every character of the
+ * source is escaped on output, so the only tags in the result are the ones emitted
+ * here, and link targets are limited to http(s), mailto and same-site paths.
+ * <p>
+ * Supported: ATX headings, paragraphs, fenced code blocks, block quotes, bullet and
+ * numbered lists, and inline code, strong, emphasis and links.
+ */
+public final class MarkdownRenderer {
+
+    private static final Pattern ORDERED_ITEM = Pattern.compile("^\\d{1,9}[.)]\\s+(.*)$");
+    private static final Pattern BULLET_ITEM = Pattern.compile("^[-*+]\\s+(.*)$");
+
+    private MarkdownRenderer() {
+    }
+
+    public static String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        String[] lines = markdown.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        StringBuilder html = new StringBuilder(markdown.length() + markdown.length() / 4);
+        renderBlocks(lines, html);
+        return html.toString();
+    }
+
+    private static void renderBlocks(String[] lines, StringBuilder html) {
+        List<String> paragraph = new ArrayList<>();
+        int i = 0;
+        while (i < lines.length) {
+            String line = lines[i].strip();
+            if (line.startsWith("```")) {
+                flushParagraph(paragraph, html);
+                i = renderFence(lines, i + 1, html);
+            } else if (line.isEmpty()) {
+                flushParagraph(paragraph, html);
+                i++;
+            } else if (headingLevel(line) > 0) {
+                flushParagraph(paragraph, html);
+                int level = headingLevel(line);
+                html.append("<h").append(level).append('>');
+                renderInline(line.substring(level).strip(), html);
+                html.append("</h").append(level).append(">\n");
+                i++;
+            } else if (line.startsWith(">")) {
+                flushParagraph(paragraph, html);
+                List<String> quoted = new ArrayList<>();
+                while (i < lines.length && lines[i].strip().startsWith(">")) {
+                    String inner = lines[i].strip().substring(1);
+                    quoted.add(inner.startsWith(" ") ? inner.substring(1) : inner);
+                    i++;
+                }
+                html.append("<blockquote>\n");
+                renderBlocks(quoted.toArray(String[]::new), html);
+                html.append("</blockquote>\n");
+            } else if (BULLET_ITEM.matcher(line).matches()) {
+                flushParagraph(paragraph, html);
+                i = renderList(lines, i, BULLET_ITEM, "ul", html);
+            } else if (ORDERED_ITEM.matcher(line).matches()) {
+                flushParagraph(paragraph, html);
+                i = renderList(lines, i, ORDERED_ITEM, "ol", html);
+            } else {
+                paragraph.add(line);
+                i++;
+            }
+        }
+        flushParagraph(paragraph, html);
+    }
+
+    // returns the index after the closing fence, an unclosed fence runs to the end
+    private static int renderFence(String[] lines, int start, StringBuilder html) {
+        html.append("<pre><code>");
+        int i = start;
+        while (i < lines.length && !lines[i].strip().startsWith("```")) {
+            if (i > start) {
+                html.append('\n');
+            }
+            escape(lines[i], 0, lines[i].length(), html);
+            i++;
+        }
+        html.append("</code></pre>\n");
+        return i + 1;
+    }
+
+    private static int renderList(String[] lines, int start, Pattern item, String tag, StringBuilder html) {
+        html.append('<').append(tag).append(">\n");
+        int i = start;
+        Matcher matcher;
+        while (i < lines.length && (matcher = item.matcher(lines[i].strip())).matches()) {
+            html.append("<li>");
+            renderInline(matcher.group(1), html);
+            html.append("</li>\n");
+            i++;
+        }
+        html.append("</").append(tag).append(">\n");
+        return i;
+    }
+
+    private static void flushParagraph(List<String> paragraph, StringBuilder html) {
+        if (paragraph.isEmpty()) {
+            return;
+        }
+        html.append("<p>");
+        renderInline(String.join("\n", paragraph), html);
+        html.append("</p>\n");
+        paragraph.clear();
+    }
+
+    private static int headingLevel(String line) {
+        int level = 0;
+        while (level < line.length() && level < 7 && line.charAt(level) == '#') {
+            level++;
+        }
+        if (level == 0 || level > 6 || level == line.length() || line.charAt(level) != ' ') {
+            return 0;
+        }
+        return level;
+    }
+
+    private static void renderInline(String text, StringBuilder html) {
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < length && isPunctuation(text.charAt(i + 1))) {
+                escape(text, i + 1, i + 2, html);
+                i += 2;
+                continue;
+            }
+            if (c == '`') {
+                int end = text.indexOf('`', i + 1);
+                if (end > i) {
+                    html.append("<code>");
+                    escape(text, i + 1, end, html);
+                    html.append("</code>");
+                    i = end + 1;
+                    continue;
+                }
+            }
+            if (text.startsWith("**", i)) {
+                int end = text.indexOf("**", i + 2);
+                if (end > i + 2) {
+                    html.append("<strong>");
+                    renderInline(text.substring(i + 2, end), html);
+                    html.append("</strong>");
+                    i = end + 2;
+                    continue;
+                }
+            }
+            if ((c == '*' || c == '_') && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                int end = text.indexOf(c, i + 1);
+                if (end > i + 1) {
+                    html.append("<em>");
+                    renderInline(text.substring(i + 1, end), html);
+                    html.append("</em>");
+                    i = end + 1;
+                    continue;
+                }
+            }
+            if (c == '[') {
+                int next = renderLink(text, i, html);
+                if (next > i) {
+                    i = next;
+                    continue;
+                }
+            }
+            escape(text, i, i + 1, html);
+            i++;
+        }
+    }
+
+    // returns the index after the link, or start when the brackets do not form one
+    private static int renderLink(String text, int start, StringBuilder html) {
+        int labelEnd = text.indexOf("](", start + 1);
+        if (labelEnd < 0) {
+            return start;
+        }
+        int urlEnd = text.indexOf(')', labelEnd + 2);
+        if (urlEnd < 0) {
+            return start;
+        }
+        String url = text.substring(labelEnd + 2, urlEnd).strip();
+        String label = text.substring(start + 1, labelEnd);
+        if (!isSafeUrl(url)) {
+            // keep the words, drop the link
+            renderInline(label, html);
+            return urlEnd + 1;
+        }
+        html.append("<a href=\"");
+        escape(url, 0, url.length(), html);
+        html.append("\" rel=\"nofollow noopener\">");
+        renderInline(label, html);
+        html.append("</a>");
+        return urlEnd + 1;
+    }
+
+    private static boolean isSafeUrl(String url) {
+        if (url.isEmpty() || url.chars().anyMatch(ch -> Character.isWhitespace(ch) || Character.isISOControl(ch))) {
+            return false;
+        }
+        String lower = url.toLowerCase();
+        return lower.startsWith("https://") || lower.startsWith("http://") || lower.startsWith("mailto:")
+                || lower.startsWith("#") || (lower.startsWith("/") && !lower.startsWith("//"));
+    }
+
+    private static boolean isPunctuation(char c) {
+        return "\\`*_{}[]()#+-.!>".indexOf(c) >= 0;
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder html) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.coderscrib.blogapp.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * MinHash signatures of post texts, for estimating the Jaccard similarity of their word sets.
+ * <p>
+ * Shingles are the distinct terms of {@link SearchIndex#tokenize}: single words rather than
+ * n-grams, because related posts share vocabulary, not sentences. Each of the
+ * {@link #HASHES} slots keeps the smallest value of one seeded 64-bit mix over all shingles;
+ * the fraction of equal slots between two signatures estimates their similarity.
+ * Signatures are stored as {@link #HASHES} big-endian ints.
+ */
+public final class MinHash {
+    public static final int HASHES = 32;
+    public static final int SIGNATURE_BYTES = HASHES * Integer.BYTES;
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < HASHES; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Signature of the text, or null when it has no terms to compare.
+     */
+    public static byte[] signature(String text) {
+        Set<String> shingles = new HashSet<>(SearchIndex.tokenize(text));
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        int[] minimums = new int[HASHES];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long hash = hash(shingle);
+            for (int i = 0; i < HASHES; i++) {
+                int value = (int) (mix(hash ^ SEEDS[i]) >>> 33);
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_BYTES);
+        for (int minimum : minimums) {
+            buffer.putInt(minimum);
+        }
+        return buffer.array();
+    }
+
+    public static int[] values(byte[] signature) {
+        if (signature == null || signature.length != SIGNATURE_BYTES) {
+            throw new IllegalArgumentException("Not a MinHash signature");
+        }
+        int[] values = new int[HASHES];
+        ByteBuffer.wrap(signature).asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Estimated Jaccard similarity, between 0 and 1.
+     */
+    public static double similarity(byte[] a, byte[] b) {
+        int[] first = values(a);
+        int[] second = values(b);
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    private static long hash(String shingle) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < shingle.length(); i++) {
+            hash = (hash ^ shingle.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // murmur3 finalizer
+    static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
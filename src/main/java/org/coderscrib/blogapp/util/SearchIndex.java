@@ -0,0 +1,230 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over short documents, ranked with Okapi BM25.
+ * <p>
+ * Every indexed version of a document gets a dense internal number; postings are append-only
+ * primitive arrays sorted by that number. Updating or removing a document only marks its old
+ * number deleted; once deleted entries pass a quarter of the total, postings are compacted and
+ * the live documents renumbered densely, so the numbers stay bounded by the live document count.
+ * As in Lucene, document frequencies still count deleted entries until the next compaction.
+ * Title terms count {@link #TITLE_BOOST} times towards the term frequency.
+ */
+public final class SearchIndex {
+    public static final int TITLE_BOOST = 3;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "were", "with");
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docNumbers = new HashMap<>();
+    private long[] externalIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private final BitSet deleted = new BitSet();
+    private int nextDoc;
+    private int deletedCount;
+    private long liveLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a document, replacing any previous version with the same id.
+     */
+    public void put(long id, String title, String body) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = countTerms(title, TITLE_BOOST, frequencies) + countTerms(body, 1, frequencies);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int doc = nextDoc++;
+            ensureCapacity(doc);
+            externalIds[doc] = id;
+            docLengths[doc] = length;
+            liveLength += length;
+            docNumbers.put(id, doc);
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new Postings()).append(doc, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of the best matching documents, best first
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int liveDocs = docNumbers.size();
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            float averageLength = (float) liveLength / liveDocs;
+            Map<Integer, Float> scores = new HashMap<>();
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    int tf = list.frequencies[i];
+                    float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                    scores.merge(doc, idf * tf * (K1 + 1) / (tf + norm), Float::sum);
+                }
+            }
+            PriorityQueue<Map.Entry<Integer, Float>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            LinkedList<Long> result = new LinkedList<>();
+            while (!top.isEmpty()) {
+                result.addFirst(externalIds[top.poll().getKey()]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                String token = current.toString();
+                if (token.length() >= MIN_TOKEN_LENGTH && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static int countTerms(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void removeLocked(long id) {
+        Integer doc = docNumbers.remove(id);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        liveLength -= docLengths[doc];
+        if (deletedCount > 1024 && deletedCount * 4 > nextDoc) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        // live documents keep their relative order, so every postings list stays sorted
+        int[] renumbered = new int[nextDoc];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (!deleted.get(doc)) {
+                renumbered[doc] = live;
+                externalIds[live] = externalIds[doc];
+                docLengths[live] = docLengths[doc];
+                docNumbers.put(externalIds[live], live);
+                live++;
+            }
+        }
+        Iterator<Postings> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            Postings list = lists.next();
+            list.compact(deleted, renumbered);
+            if (list.size == 0) {
+                lists.remove();
+            }
+        }
+        nextDoc = live;
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    private void ensureCapacity(int doc) {
+        if (doc >= externalIds.length) {
+            int capacity = externalIds.length * 2;
+            externalIds = Arrays.copyOf(externalIds, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+        }
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void append(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void compact(BitSet removed, int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!removed.get(docs[i])) {
+                    docs[kept] = renumbered[docs[i]];
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
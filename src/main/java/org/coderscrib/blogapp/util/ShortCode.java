@@ -0,0 +1,74 @@
+package org.coderscrib.blogapp.util;
+
+/**
+ * Short, non-sequential base62 codes for numeric ids.
+ * Ids are mixed by an invertible multiply-and-xor on 40 bits before encoding, so
+ * neighbouring ids get unrelated codes while decoding needs no lookup table.
+ * Codes are at most 7 characters and cover ids below 2^40.
+ */
+public final class ShortCode {
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BITS = 40;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final long MULTIPLIER = 0x9E3779B97L & MASK | 1;
+    private static final long INVERSE = inverse(MULTIPLIER);
+    private static final long SALT = 0x5DEECE66DL & MASK;
+    private static final int MAX_LENGTH = 7;
+
+    private ShortCode() {
+    }
+
+    public static String encode(long id) {
+        if (id < 0 || id > MASK) {
+            throw new IllegalArgumentException("Id out of range: " + id);
+        }
+        long value = ((id ^ SALT) * MULTIPLIER) & MASK;
+        StringBuilder code = new StringBuilder(MAX_LENGTH);
+        do {
+            code.append(ALPHABET.charAt((int) (value % 62)));
+            value /= 62;
+        } while (value > 0);
+        return code.reverse().toString();
+    }
+
+    // -1 for anything that is not a code we could have produced
+    public static long decode(String code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            int digit = digit(code.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * 62 + digit;
+        }
+        if (value > MASK || (code.length() > 1 && code.charAt(0) == '0')) {
+            return -1;
+        }
+        return ((value * INVERSE) & MASK) ^ SALT;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 36;
+        }
+        return -1;
+    }
+
+    // Newton iteration for the multiplicative inverse of an odd number mod 2^64
+    private static long inverse(long odd) {
+        long inverse = odd;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse & MASK;
+    }
+}
@@ -0,0 +1,144 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag index: one {@link IntBitmap} of post ids per tag, plus one of every indexed
+ * post so NOT-only filters have something to subtract from.
+ * <p>
+ * Filters are answered with bitmap AND/OR/ANDNOT and the matching ids are read newest
+ * (highest id) first, so a page of a filtered listing never touches the database until the
+ * ids of that page are known. Post ids must fit in an int.
+ */
+public final class TagIndex {
+    private final Map<String, IntBitmap> byTag = new HashMap<>();
+    private final IntBitmap all = new IntBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public record Match(long total, int[] ids) {
+    }
+
+    public static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds one tag of a post, or just the post when tag is null; used while rebuilding.
+     */
+    public void add(long postId, String tag) {
+        int id = Math.toIntExact(postId);
+        lock.writeLock().lock();
+        try {
+            all.add(id);
+            if (tag != null) {
+                byTag.computeIfAbsent(normalize(tag), k -> new IntBitmap()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a post with exactly the given tags, replacing the previous ones it was indexed with.
+     */
+    public void put(long postId, Collection<String> previousTags, Collection<String> tags) {
+        int id = Math.toIntExact(postId);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id, previousTags);
+            all.add(id);
+            for (String tag : tags) {
+                byTag.computeIfAbsent(normalize(tag), k -> new IntBitmap()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId, Collection<String> previousTags) {
+        int id = Math.toIntExact(postId);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id, previousTags);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Posts carrying every tag of allOf, at least one of anyOf and none of noneOf; empty
+     * collections are ignored. Returns the total and the ids of one page, highest id first.
+     */
+    public Match query(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf,
+                       long skip, int limit) {
+        lock.readLock().lock();
+        try {
+            IntBitmap result = all;
+            for (String tag : allOf) {
+                IntBitmap tagged = byTag.get(normalize(tag));
+                if (tagged == null) {
+                    return new Match(0, new int[0]);
+                }
+                result = IntBitmap.and(result, tagged);
+            }
+            if (!anyOf.isEmpty()) {
+                result = IntBitmap.and(result, union(anyOf));
+            }
+            if (!noneOf.isEmpty()) {
+                result = IntBitmap.andNot(result, union(noneOf));
+            }
+            return new Match(result.cardinality(), result.pageDescending(skip, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tagCount() {
+        lock.readLock().lock();
+        try {
+            return byTag.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return all.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntBitmap union(Collection<String> tags) {
+        IntBitmap union = new IntBitmap();
+        for (String tag : tags) {
+            IntBitmap tagged = byTag.get(normalize(tag));
+            if (tagged != null) {
+                union = IntBitmap.or(union, tagged);
+            }
+        }
+        return union;
+    }
+
+    // only the post's own bitmaps, never a walk over every tag under the write lock
+    private void removeLocked(int id, Collection<String> previousTags) {
+        all.remove(id);
+        for (String tag : previousTags) {
+            String key = normalize(tag);
+            IntBitmap tagged = byTag.get(key);
+            if (tagged != null) {
+                tagged.remove(id);
+                if (tagged.isEmpty()) {
+                    byTag.remove(key);
+                }
+            }
+        }
+    }
+}
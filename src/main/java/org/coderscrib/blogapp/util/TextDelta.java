@@ -0,0 +1,40 @@
+package org.coderscrib.blogapp.util;
+
+/**
+ * Single-span text delta: the common prefix and suffix are kept, the middle is replaced.
+ * Encoded as {@code prefixLength,suffixLength,replacement}. Post edits are usually local,
+ * so the delta is a small fraction of the text; a rewrite degrades to roughly the full text.
+ */
+public final class TextDelta {
+
+    private TextDelta() {
+    }
+
+    public static String diff(String from, String to) {
+        int max = Math.min(from.length(), to.length());
+        int prefix = 0;
+        while (prefix < max && from.charAt(prefix) == to.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) {
+            suffix++;
+        }
+        return prefix + "," + suffix + "," + to.substring(prefix, to.length() - suffix);
+    }
+
+    public static String apply(String from, String delta) {
+        int first = delta.indexOf(',');
+        int second = delta.indexOf(',', first + 1);
+        if (first < 0 || second < 0) {
+            throw new IllegalArgumentException("Malformed delta");
+        }
+        int prefix = Integer.parseInt(delta, 0, first, 10);
+        int suffix = Integer.parseInt(delta, first + 1, second, 10);
+        if (prefix + suffix > from.length()) {
+            throw new IllegalArgumentException("Delta does not match its base text");
+        }
+        return from.substring(0, prefix) + delta.substring(second + 1) + from.substring(from.length() - suffix);
+    }
+}
@@ -0,0 +1,79 @@
+package org.coderscrib.blogapp.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for long ids. Each deadline is rounded up to a tick and hashed into
+ * one of a fixed number of buckets; entries further out than one turn carry the number of
+ * remaining turns. Scheduling is O(1) and each tick only looks at one bucket, no matter how
+ * far ahead the deadlines are spread. Deadlines already passed come back on the next advance.
+ * All methods are synchronized.
+ */
+public final class TimingWheel {
+    private final long tickMillis;
+    private final List<Entry>[] buckets;
+    private final int mask;
+    private final List<Long> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    private record Entry(long id, long tick) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = wheelSize - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(long id, long deadlineMillis) {
+        // round up, an entry never fires before its deadline
+        long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        if (tick < currentTick) {
+            overdue.add(id);
+        } else {
+            buckets[(int) (tick & mask)].add(new Entry(id, tick));
+        }
+        size++;
+    }
+
+    /**
+     * Moves the wheel up to nowMillis and returns every id whose deadline has been reached.
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        List<Long> due = new ArrayList<>(overdue);
+        overdue.clear();
+        long targetTick = nowMillis / tickMillis;
+        // after a long pause one full turn visits every bucket
+        long lastTick = Math.min(targetTick, currentTick + buckets.length - 1);
+        for (long tick = currentTick; tick <= lastTick; tick++) {
+            Iterator<Entry> entries = buckets[(int) (tick & mask)].iterator();
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                if (entry.tick() <= targetTick) {
+                    due.add(entry.id());
+                    entries.remove();
+                }
+            }
+        }
+        if (targetTick >= currentTick) {
+            currentTick = targetTick + 1;
+        }
+        size -= due.size();
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
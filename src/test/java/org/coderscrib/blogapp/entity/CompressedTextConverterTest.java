@@ -0,0 +1,37 @@
+package org.coderscrib.blogapp.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    public void testShortTextIsStoredRaw() {
+        byte[] column = converter.convertToDatabaseColumn("héllo");
+
+        assertEquals(CompressedTextConverter.RAW, column[0]);
+        assertEquals("héllo", converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    public void testLongTextIsDeflatedAndRoundTrips() {
+        String text = "The quick brown fox jumps over the lazy dog. ".repeat(200);
+
+        byte[] column = converter.convertToDatabaseColumn(text);
+
+        assertEquals(CompressedTextConverter.DEFLATE, column[0]);
+        assertTrue(column.length < text.length() / 4);
+        assertEquals(text, converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    public void testNullPassesThrough() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -48,6 +49,11 @@ public class ExceptionHandlingTest {
         public void throwConflictException() {
             throw new ConflictException("Operation cannot be performed due to conflict");
         }
+
+        @GetMapping("/optimistic-lock")
+        public void throwOptimisticLockingFailureException() {
+            throw new ObjectOptimisticLockingFailureException("Post", 1L);
+        }
     }
 
     @Test
@@ -82,4 +88,14 @@ public class ExceptionHandlingTest {
         assertEquals("Operation cannot be performed due to conflict", body.get("message"));
         assertEquals(409, body.get("status"));
     }
+
+    @Test
+    public void testOptimisticLockingFailureException() {
+        ResponseEntity<Map> response = restTemplate.getForEntity("/test-exceptions/optimistic-lock", Map.class);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        Map<String, Object> body = response.getBody();
+        assertNotNull(body);
+        assertEquals(409, body.get("status"));
+    }
 }
@@ -0,0 +1,56 @@
+package org.coderscrib.blogapp.repository;
+
+import jakarta.persistence.EntityManager;
+import org.coderscrib.blogapp.entity.Post;
+import org.coderscrib.blogapp.entity.PostContent;
+import org.coderscrib.blogapp.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class PostRepositoryTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testEntityUpdateKeepsCountersWrittenInBulk() {
+        User author = User.builder()
+                .username("alice")
+                .displayName("Alice")
+                .password("secret")
+                .email("alice@example.com")
+                .build();
+        entityManager.persist(author);
+        Post post = Post.builder()
+                .title("Counters")
+                .body(PostContent.of("body", "<p>body</p>", null))
+                .author(author)
+                .build();
+        entityManager.persist(post);
+        entityManager.flush();
+        entityManager.clear();
+
+        Post loaded = postRepository.findById(post.getId()).orElseThrow();
+        postRepository.adjustLikeCount(post.getId(), 1);
+        postRepository.adjustCommentCount(post.getId(), 2);
+        entityManager.createNativeQuery("UPDATE post SET view_count = view_count + 3 WHERE id = ?")
+                .setParameter(1, post.getId())
+                .executeUpdate();
+        loaded.setTitle("Edited after a like");
+        entityManager.flush();
+        entityManager.clear();
+
+        Post reloaded = postRepository.findById(post.getId()).orElseThrow();
+        assertEquals("Edited after a like", reloaded.getTitle());
+        assertEquals(1, reloaded.getLikeCount());
+        assertEquals(2, reloaded.getCommentCount());
+        assertEquals(3, reloaded.getViewCount());
+    }
+}
@@ -0,0 +1,82 @@
+package org.coderscrib.blogapp.service;
+
+import org.coderscrib.blogapp.dto.draft.DraftPatchDto;
+import org.coderscrib.blogapp.entity.PostDraft;
+import org.coderscrib.blogapp.entity.User;
+import org.coderscrib.blogapp.repository.PostDraftRepository;
+import org.coderscrib.blogapp.repository.PostRepository;
+import org.coderscrib.blogapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DraftServiceTest {
+
+    @Mock
+    private PostDraftRepository draftRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private DraftService draftService;
+
+    @Test
+    public void testFlushRecordsEachDraftsOwnRevision() {
+        ReflectionTestUtils.setField(draftService, "idleEvictMs", 600000L);
+        // 17 comes before 2 in the working copy map, the batch is sorted by id
+        when(draftRepository.findById(17L)).thenReturn(Optional.of(draft(17L, 1)));
+        when(draftRepository.findById(2L)).thenReturn(Optional.of(draft(2L, 3)));
+        draftService.patchDraft(17L, new DraftPatchDto(1L, "Draft 17", null));
+        draftService.patchDraft(2L, new DraftPatchDto(3L, "Draft 2", null));
+        draftService.flush();
+
+        // only written if the first flush recorded revision 2 for draft 17, not draft 2's revision 4
+        draftService.patchDraft(17L, new DraftPatchDto(2L, "Draft 17 again", null));
+        draftService.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        List<Object[]> second = batches.getAllValues().get(1);
+        assertEquals(1, second.size());
+        assertEquals(17L, second.get(0)[4]);
+        assertEquals(3L, second.get(0)[2]);
+    }
+
+    private static PostDraft draft(Long id, long revision) {
+        return PostDraft.builder()
+                .id(id)
+                .author(User.builder().id(1L).build())
+                .title("")
+                .content("draft body")
+                .revision(revision)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
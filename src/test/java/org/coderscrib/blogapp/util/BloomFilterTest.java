@@ -0,0 +1,45 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testAddedIdsAreNeverMissed() {
+        BloomFilter filter = BloomFilter.forCapacity(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        assertFalse(filter.isOverCapacity());
+    }
+
+    @Test
+    public void testFalsePositiveRateStaysNearTarget() {
+        BloomFilter filter = BloomFilter.forCapacity(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+        int falsePositives = 0;
+        for (long id = 1_000_001; id <= 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testOverCapacityAfterTooManyAdds() {
+        BloomFilter filter = BloomFilter.forCapacity(64, 0.01);
+        for (long id = 1; id <= 65; id++) {
+            filter.add(id);
+        }
+        assertTrue(filter.isOverCapacity());
+    }
+}
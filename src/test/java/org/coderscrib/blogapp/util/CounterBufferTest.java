@@ -0,0 +1,45 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CounterBufferTest {
+
+    @Test
+    public void testNoIncrementIsLostWhileDraining() throws InterruptedException {
+        CounterBuffer buffer = new CounterBuffer();
+        AtomicLong drained = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread drainer = new Thread(() -> {
+            while (running.get()) {
+                buffer.drain().forEach(row -> drained.addAndGet((Long) row[0]));
+            }
+        });
+        drainer.start();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    buffer.increment(i % 8);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        running.set(false);
+        drainer.join();
+        buffer.drain().forEach(row -> drained.addAndGet((Long) row[0]));
+
+        assertEquals(800_000, drained.get());
+    }
+}
@@ -0,0 +1,45 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DecayingTopKTest {
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    public void testRecentActivityOutranksOlderActivity() {
+        DecayingTopK topK = new DecayingTopK(10, HOUR, 0);
+        topK.add(1L, 3, 0);
+        topK.add(2L, 1, HOUR);
+        assertEquals(List.of(1L, 2L), topK.top(10));
+
+        // three likes two half-lives ago weigh 0.75 now, less than one fresh like
+        topK.add(3L, 1, 2 * HOUR);
+        assertEquals(List.of(3L, 1L), topK.top(2));
+    }
+
+    @Test
+    public void testDecayedScoresAndCapacity() {
+        DecayingTopK topK = new DecayingTopK(2, HOUR, 0);
+        topK.add(1L, 4, 0);
+        topK.add(2L, 2, 0);
+        topK.add(3L, 1, 0);
+
+        Map<Long, Double> scores = topK.decayedScores(HOUR);
+        assertEquals(List.of(1L, 2L), List.copyOf(scores.keySet()));
+        assertEquals(2.0, scores.get(1L), 1e-9);
+    }
+
+    @Test
+    public void testRebaseKeepsRanking() {
+        DecayingTopK topK = new DecayingTopK(10, 1, 0);
+        topK.add(1L, 1, 0);
+        topK.add(2L, 1, 600);
+        topK.add(1L, 1, 1200);
+        assertEquals(List.of(1L, 2L), topK.top(10));
+    }
+}
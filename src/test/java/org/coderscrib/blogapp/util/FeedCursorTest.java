@@ -0,0 +1,29 @@
+package org.coderscrib.blogapp.util;
+
+import org.coderscrib.blogapp.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FeedCursorTest {
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+        FeedCursor cursor = new FeedCursor(createdAt, 42L);
+
+        FeedCursor decoded = FeedCursor.decode(cursor.encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    public void testDecodeRejectsMalformedToken() {
+        assertThrows(BadRequestException.class, () -> FeedCursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> FeedCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
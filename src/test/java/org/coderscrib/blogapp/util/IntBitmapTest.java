@@ -0,0 +1,89 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntBitmapTest {
+
+    @Test
+    public void testSetOperationsMatchSortedSets() {
+        Random random = new Random(42);
+        IntBitmap a = new IntBitmap();
+        IntBitmap b = new IntBitmap();
+        TreeSet<Integer> setA = new TreeSet<>();
+        TreeSet<Integer> setB = new TreeSet<>();
+        // dense first chunk (bitmap), sparse chunks beyond (arrays)
+        for (int i = 0; i < 30_000; i++) {
+            int valueA = i < 20_000 ? random.nextInt(65_536) : random.nextInt(1_000_000);
+            int valueB = random.nextInt(200_000);
+            a.add(valueA);
+            setA.add(valueA);
+            b.add(valueB);
+            setB.add(valueB);
+        }
+
+        TreeSet<Integer> and = new TreeSet<>(setA);
+        and.retainAll(setB);
+        TreeSet<Integer> or = new TreeSet<>(setA);
+        or.addAll(setB);
+        TreeSet<Integer> andNot = new TreeSet<>(setA);
+        andNot.removeAll(setB);
+
+        assertSame(and, IntBitmap.and(a, b));
+        assertSame(or, IntBitmap.or(a, b));
+        assertSame(andNot, IntBitmap.andNot(a, b));
+        assertSame(setA, a);
+    }
+
+    @Test
+    public void testOrResultDoesNotShareChunksWithInputs() {
+        IntBitmap a = new IntBitmap();
+        IntBitmap b = new IntBitmap();
+        a.add(1);
+        b.add(70_000);
+        IntBitmap union = IntBitmap.or(a, b);
+        union.add(2);
+        union.remove(70_000);
+        assertFalse(a.contains(2));
+        assertTrue(b.contains(70_000));
+    }
+
+    @Test
+    public void testRemoveConvertsBackAndEmpties() {
+        IntBitmap bitmap = new IntBitmap();
+        for (int i = 0; i < 5_000; i++) {
+            bitmap.add(i * 2);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            bitmap.remove(i * 2);
+            assertEquals(4_999 - i, bitmap.cardinality());
+        }
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.contains(0));
+    }
+
+    @Test
+    public void testPageDescendingSkipsAcrossChunks() {
+        IntBitmap bitmap = new IntBitmap();
+        for (int value : new int[]{1, 5, 70_000, 70_001, 200_000}) {
+            bitmap.add(value);
+        }
+        assertArrayEquals(new int[]{200_000, 70_001}, bitmap.pageDescending(0, 2));
+        assertArrayEquals(new int[]{70_000, 5}, bitmap.pageDescending(2, 2));
+        assertArrayEquals(new int[]{1}, bitmap.pageDescending(4, 2));
+        assertArrayEquals(new int[0], bitmap.pageDescending(5, 2));
+    }
+
+    private static void assertSame(TreeSet<Integer> expected, IntBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        int[] values = actual.pageDescending(0, expected.size() + 1);
+        assertArrayEquals(expected.descendingSet().stream().mapToInt(Integer::intValue).toArray(), values);
+    }
+}
@@ -0,0 +1,52 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LshIndexTest {
+    private static final String SPRING = "spring boot caching with caffeine keeps hot posts in memory "
+            + "and evicts entries after writes so readers see fresh data from the database";
+    private static final String SPRING_EDITED = "spring boot caching with caffeine keeps hot posts in memory "
+            + "and evicts entries after updates so readers see fresh rows from the database";
+    private static final String GARDEN = "tomatoes need full sun, deep watering and a trellis before the "
+            + "summer heat arrives in the vegetable garden";
+
+    @Test
+    public void testSimilarTextsShareBuckets() {
+        LshIndex index = new LshIndex();
+        index.put(1, MinHash.signature(SPRING));
+        index.put(2, MinHash.signature(SPRING_EDITED));
+        index.put(3, MinHash.signature(GARDEN));
+
+        byte[] query = MinHash.signature(SPRING);
+        assertTrue(MinHash.similarity(query, MinHash.signature(SPRING_EDITED)) > 0.5);
+        assertEquals(List.of(2L), index.candidates(1, query, 10));
+    }
+
+    @Test
+    public void testRemovedPostsAreNoLongerCandidates() {
+        LshIndex index = new LshIndex();
+        for (int id = 1; id <= 2_000; id++) {
+            index.put(id, MinHash.signature(SPRING + " " + id));
+        }
+        for (int id = 2; id <= 2_000; id++) {
+            index.remove(id, MinHash.signature(SPRING + " " + id));
+        }
+        index.put(5_000, MinHash.signature(SPRING_EDITED));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(5_000L), index.candidates(1, MinHash.signature(SPRING), 10));
+        assertFalse(index.candidates(5_000, MinHash.signature(SPRING_EDITED), 10).contains(2L));
+    }
+
+    @Test
+    public void testTextWithoutTermsHasNoSignature() {
+        assertNull(MinHash.signature("a ... !"));
+    }
+}
@@ -0,0 +1,43 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class MarkdownRendererTest {
+
+    @Test
+    public void testRendersBlocksAndInlineMarkup() {
+        String html = MarkdownRenderer.render("# Title\n\nSome **bold** and *em* with `a<b`.\n\n- one\n- two\n\n1. first\n\n> quoted");
+
+        assertEquals("<h1>Title</h1>\n"
+                + "<p>Some <strong>bold</strong> and <em>em</em> with <code>a&lt;b</code>.</p>\n"
+                + "<ul>\n<li>one</li>\n<li>two</li>\n</ul>\n"
+                + "<ol>\n<li>first</li>\n</ol>\n"
+                + "<blockquote>\n<p>quoted</p>\n</blockquote>\n", html);
+    }
+
+    @Test
+    public void testEscapesRawHtmlAndCodeBlocks() {
+        String html = MarkdownRenderer.render("<script>alert('x')</script>\n```\n<b>&</b>\n```");
+
+        assertEquals("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;</p>\n"
+                + "<pre><code>&lt;b&gt;&amp;&lt;/b&gt;</code></pre>\n", html);
+    }
+
+    @Test
+    public void testOnlySafeLinkTargetsBecomeAnchors() {
+        assertEquals("<p><a href=\"https://example.com/?a=1&amp;b=2\" rel=\"nofollow noopener\">site</a></p>\n",
+                MarkdownRenderer.render("[site](https://example.com/?a=1&b=2)"));
+
+        String html = MarkdownRenderer.render("[click](javascript:alert(1)) [x](//evil.example)");
+        assertFalse(html.contains("<a"));
+        assertFalse(html.contains("javascript"));
+    }
+
+    @Test
+    public void testSnakeCaseIsNotEmphasis() {
+        assertEquals("<p>use snake_case_names</p>\n", MarkdownRenderer.render("use snake_case_names"));
+    }
+}
@@ -0,0 +1,67 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchIndexTest {
+
+    @Test
+    public void testRanksTitleMatchesAboveBodyMatches() {
+        SearchIndex index = new SearchIndex();
+        index.put(1L, "Cooking pasta", "A short note about spring onions");
+        index.put(2L, "Spring Boot caching", "How we cache posts with Caffeine");
+        index.put(3L, "Gardening", "Nothing relevant here");
+
+        List<Long> results = index.search("spring", 10);
+
+        assertEquals(List.of(2L, 1L), results);
+    }
+
+    @Test
+    public void testUpdateAndRemoveReplaceOldVersion() {
+        SearchIndex index = new SearchIndex();
+        index.put(1L, "Old title", "legacy words");
+        index.put(1L, "New title", "fresh words");
+
+        assertTrue(index.search("legacy", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("fresh", 10));
+
+        index.remove(1L);
+        assertTrue(index.search("fresh", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testCompactionKeepsLiveDocuments() {
+        SearchIndex index = new SearchIndex();
+        for (long id = 1; id <= 3000; id++) {
+            index.put(id, "post " + id, "common body");
+        }
+        for (long id = 1; id <= 2000; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(List.of(2500L), index.search("2500", 5));
+        assertEquals(5, index.search("common", 5).size());
+    }
+
+    @Test
+    public void testRepeatedEditsSurviveRenumbering() {
+        SearchIndex index = new SearchIndex();
+        for (int round = 0; round < 500; round++) {
+            for (long id = 1; id <= 20; id++) {
+                index.put(id, "post " + id, "revision r" + round + " of x" + id);
+            }
+        }
+
+        assertEquals(20, index.size());
+        assertEquals(List.of(7L), index.search("x7", 5));
+        assertEquals(20, index.search("r499", 50).size());
+        assertTrue(index.search("r498", 50).isEmpty());
+    }
+}
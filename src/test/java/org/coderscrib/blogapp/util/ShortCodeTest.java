@@ -0,0 +1,34 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShortCodeTest {
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        Set<String> codes = new HashSet<>();
+        for (long id = 0; id < 5_000; id++) {
+            String code = ShortCode.encode(id);
+            assertTrue(code.length() <= 7, code);
+            assertEquals(id, ShortCode.decode(code));
+            codes.add(code);
+        }
+        assertEquals(5_000, codes.size());
+        long max = (1L << 40) - 1;
+        assertEquals(max, ShortCode.decode(ShortCode.encode(max)));
+    }
+
+    @Test
+    public void testDecodeRejectsForeignCodes() {
+        assertEquals(-1, ShortCode.decode(""));
+        assertEquals(-1, ShortCode.decode("abc-def"));
+        assertEquals(-1, ShortCode.decode("zzzzzzzz"));
+        assertEquals(-1, ShortCode.decode("zzzzzzz"));
+    }
+}
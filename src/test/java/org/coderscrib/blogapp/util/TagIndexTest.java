@@ -0,0 +1,36 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TagIndexTest {
+
+    @Test
+    public void testPutReplacesPreviousTags() {
+        TagIndex index = new TagIndex();
+        index.put(1, Set.of(), List.of("java", "spring"));
+        index.put(2, Set.of(), List.of("java"));
+        index.put(1, Set.of("java", "spring"), List.of("Kotlin"));
+
+        assertArrayEquals(new int[]{2}, index.query(List.of("java"), List.of(), List.of(), 0, 10).ids());
+        assertArrayEquals(new int[]{1}, index.query(List.of("kotlin"), List.of(), List.of(), 0, 10).ids());
+        assertEquals(0, index.query(List.of("spring"), List.of(), List.of(), 0, 10).total());
+        assertEquals(2, index.tagCount());
+    }
+
+    @Test
+    public void testRemoveDropsPostAndEmptyTags() {
+        TagIndex index = new TagIndex();
+        index.put(1, Set.of(), List.of("java"));
+        index.put(2, Set.of(), List.of());
+        index.remove(1, Set.of("java"));
+
+        assertEquals(0, index.tagCount());
+        assertArrayEquals(new int[]{2}, index.query(List.of(), List.of(), List.of("java"), 0, 10).ids());
+    }
+}
@@ -0,0 +1,35 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TextDeltaTest {
+
+    @Test
+    public void testLocalEditProducesSmallDelta() {
+        String from = "The quick brown fox jumps over the lazy dog.";
+        String to = "The quick red fox jumps over the lazy dog.";
+
+        String delta = TextDelta.diff(from, to);
+
+        assertEquals("10,29,red", delta);
+        assertEquals(to, TextDelta.apply(from, delta));
+    }
+
+    @Test
+    public void testRoundTripsEdgeCases() {
+        String[][] cases = {
+                {"", "new text"},
+                {"old text", ""},
+                {"aaaa", "aaaaaa"},
+                {"abcabc", "abc"},
+                {"same", "same"},
+                {"prefix only", "prefix only, extended"},
+                {"a,b,c", "a,,b,c,"}
+        };
+        for (String[] c : cases) {
+            assertEquals(c[1], TextDelta.apply(c[0], TextDelta.diff(c[0], c[1])), c[0] + " -> " + c[1]);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.coderscrib.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testFiresOnlyOnceDeadlineIsReached() {
+        TimingWheel wheel = new TimingWheel(1000, 8, 0);
+        wheel.schedule(1L, 2_500);
+        wheel.schedule(2L, 3_000);
+
+        assertTrue(wheel.advance(2_999).isEmpty());
+        assertEquals(List.of(1L, 2L), wheel.advance(3_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDeadlinesBeyondOneTurnWaitForTheirRound() {
+        TimingWheel wheel = new TimingWheel(1000, 4, 0);
+        wheel.schedule(7L, 9_000); // same bucket as tick 1 and 5
+
+        assertTrue(wheel.advance(1_000).isEmpty());
+        assertTrue(wheel.advance(5_000).isEmpty());
+        assertEquals(List.of(7L), wheel.advance(9_000));
+    }
+
+    @Test
+    public void testOverdueAndLongPausesAreCaughtUp() {
+        TimingWheel wheel = new TimingWheel(1000, 4, 10_000);
+        wheel.schedule(1L, 2_000);
+        wheel.schedule(2L, 12_000);
+        wheel.schedule(3L, 50_000);
+
+        assertEquals(List.of(1L), wheel.advance(10_000));
+        // far more than one turn later
+        List<Long> due = wheel.advance(60_000);
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of(2L, 3L)));
+    }
+}